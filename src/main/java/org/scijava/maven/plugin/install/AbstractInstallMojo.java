@@ -31,33 +31,58 @@ package org.scijava.maven.plugin.install;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipFile;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.manager.ArtifactHandlerManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecution;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.apache.maven.shared.artifact.DefaultArtifactCoordinate;
 import org.apache.maven.shared.artifact.filter.resolve.AbstractFilter;
 import org.apache.maven.shared.artifact.filter.resolve.AndFilter;
 import org.apache.maven.shared.artifact.filter.resolve.Node;
 import org.apache.maven.shared.artifact.filter.resolve.ScopeFilter;
 import org.apache.maven.shared.artifact.filter.resolve.TransformableFilter;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
+import org.apache.maven.shared.artifact.resolve.ArtifactResult;
+import org.apache.maven.shared.dependencies.DependableCoordinate;
+import org.apache.maven.shared.dependencies.resolve.DependencyResolver;
+import org.apache.maven.shared.dependencies.resolve.DependencyResolverException;
 import org.codehaus.plexus.interpolation.EnvarBasedValueSource;
 import org.codehaus.plexus.interpolation.ObjectBasedValueSource;
 import org.codehaus.plexus.interpolation.PrefixAwareRecursionInterceptor;
@@ -65,7 +90,7 @@ import org.codehaus.plexus.interpolation.PrefixedValueSourceWrapper;
 import org.codehaus.plexus.interpolation.PropertiesBasedValueSource;
 import org.codehaus.plexus.interpolation.RecursionInterceptor;
 import org.codehaus.plexus.interpolation.RegexBasedInterpolator;
-import org.codehaus.plexus.util.FileUtils;
+import org.scijava.maven.plugin.install.InstallPlan.Action;
 import org.scijava.util.VersionUtils;
 
 /**
@@ -119,23 +144,315 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 	@Parameter(property = IGNORE_DEPENDENCIES_PROPERTY, defaultValue = "false")
 	boolean ignoreDependencies;
 
+	/**
+	 * How to decide whether an already-installed file needs to be replaced.
+	 * <p>
+	 * By default, files newer than the artifact are kept. With
+	 * {@code checksum}, files are kept if their SHA-1 checksum matches the
+	 * {@code .sha1} file Maven stores next to the artifact in the local
+	 * repository. The checksums of installed files are recorded in the
+	 * {@link InstallManifest} of the application directory, so installed files
+	 * do not need to be read again.
+	 * </p>
+	 */
+	@Parameter(property = UP_TO_DATE_CHECK_PROPERTY, defaultValue = "timestamp")
+	UpToDateCheck upToDateCheck;
+
+	/**
+	 * Whether to skip artifacts which are still installed exactly as recorded in
+	 * the application directory's {@code .scijava-install/manifest.properties}.
+	 * <p>
+	 * Such artifacts are neither routed nor checked for other versions, so that
+	 * re-running an unchanged installation does next to nothing.
+	 * </p>
+	 */
+	@Parameter(property = INCREMENTAL_PROPERTY, defaultValue = "false")
+	boolean incremental;
+
+	/**
+	 * If set, the operations needed to install the artifacts are only printed,
+	 * without touching the application directory.
+	 */
+	@Parameter(property = DRY_RUN_PROPERTY, defaultValue = "false")
+	boolean dryRun;
+
+	/**
+	 * Whether to remember the {@code scijava.app.subdirectory} property of
+	 * released artifacts across builds.
+	 * <p>
+	 * The property is looked up in the POM of every dependency. Within a build,
+	 * the lookups are always shared by all modules and goals; with this option,
+	 * the results for non-SNAPSHOT versions, whose POMs never change, are also
+	 * stored in the local repository.
+	 * </p>
+	 */
+	@Parameter(property = PERSISTENT_SUBDIRECTORY_CACHE_PROPERTY,
+		defaultValue = "false")
+	boolean persistentSubdirectoryCache;
+
+	/**
+	 * A lockfile recording the resolved dependencies, e.g.
+	 * <code>${project.basedir}/scijava.lock</code>.
+	 * <p>
+	 * If set, the outcome of the dependency resolution is written to this file,
+	 * together with a fingerprint of its inputs: the resolved coordinate, the
+	 * active profiles, the user properties referenced by the project's POM and
+	 * its parents, those POMs themselves, the effective dependencies and
+	 * dependency management (including imported BOMs), and the POMs of SNAPSHOT
+	 * dependencies. As long as the fingerprint matches and the locked releases
+	 * are unchanged, the dependency resolution is skipped altogether. The remote
+	 * repositories are not part of the fingerprint, so that a lockfile written
+	 * online can be used {@link #offline} as well.
+	 * </p>
+	 * <p>
+	 * Each resolution is recorded in its own section of the file, named after
+	 * the resolved coordinate, so that the modules of a reactor can share one
+	 * lockfile. Artifacts outside the local repository are recorded relative to
+	 * the project's base directory.
+	 * </p>
+	 */
+	@Parameter(property = LOCKFILE_PROPERTY)
+	File lockfile;
+
+	/**
+	 * Whether to install purely from the local repository.
+	 * <p>
+	 * If set, or if Maven itself runs offline, no remote repositories are
+	 * consulted: the dependencies are taken from the {@link #lockfile} if it is
+	 * valid, or resolved against the local repository otherwise. When artifacts
+	 * are missing, the installation fails immediately, listing all of them.
+	 * The resolution runs in an offline copy of the repository session, so that
+	 * not even repositories declared in the POMs of dependencies are contacted.
+	 * </p>
+	 */
+	@Parameter(property = OFFLINE_PROPERTY, defaultValue = "false")
+	boolean offline;
+
+	/**
+	 * The platforms to install native artifacts for, as a comma-separated list.
+	 * <p>
+	 * Entries are platform short names (win32, win64, macosx, linux32, linux64),
+	 * native classifiers without prefix (e.g. {@code linux-aarch64}), or
+	 * {@code host} for the platform Maven runs on. Dependencies with a native
+	 * classifier for any other platform are left out of the resolution, so they
+	 * are never downloaded. By default, the natives of all platforms are
+	 * installed.
+	 * </p>
+	 */
+	@Parameter(property = PLATFORMS_PROPERTY)
+	String platforms;
+
+	/**
+	 * Artifacts to leave out of the installation, as patterns in the syntax of
+	 * {@link SubdirectoryPattern#patterns}.
+	 * <p>
+	 * The patterns are applied during the dependency resolution, so excluded
+	 * artifacts are never downloaded. Patterns constraining only the groupId
+	 * and artifactId, each literally or by a lone wildcard (e.g.
+	 * {@code org.jogamp.gluegen:gluegen-rt} or {@code org.jogamp.jogl:*}), are
+	 * passed on as dependency exclusions: the artifacts they match are left out
+	 * together with their dependencies, whose POMs are not even collected. Any
+	 * other pattern, e.g. one constraining the version or classifier, drops only
+	 * the matching artifacts themselves; their dependencies are still
+	 * installed.
+	 * </p>
+	 */
+	@Parameter(property = EXCLUDES_PROPERTY)
+	List<String> excludes;
+
+	/**
+	 * Whether to extract the native libraries of native-classifier jars into
+	 * {@code lib/<platform>}, for the selected {@link #platforms}.
+	 * <p>
+	 * This saves the application from unpacking them into a temporary directory
+	 * on every start. The libraries are extracted again only when the jar
+	 * changes, and deleted together with it. Jars may share a library only if
+	 * it is identical in all of them; conflicting libraries of the same name
+	 * fail the installation.
+	 * </p>
+	 */
+	@Parameter(property = EXTRACT_NATIVES_PROPERTY, defaultValue = "false")
+	boolean extractNatives;
+
+	/**
+	 * Whether to maintain a merged index of the plugins of all jars in the
+	 * application directory, in {@code .scijava-install/plugin-index.json}.
+	 * <p>
+	 * The index combines the SciJava annotation indexes and the ImageJ 1.x
+	 * {@code plugins.config} files of all jars in {@code jars/} and
+	 * {@code plugins/}, so that applications can read it on startup instead of
+	 * opening every single jar. It is updated after each installation; only
+	 * added or changed jars are opened for that.
+	 * </p>
+	 */
+	@Parameter(property = PLUGIN_INDEX_PROPERTY, defaultValue = "false")
+	boolean pluginIndex;
+
+	/**
+	 * Whether to remove the .jar files not needed anymore from the application
+	 * directory.
+	 * <p>
+	 * After the resolution, the directories installed into are compared with
+	 * the complete set of artifacts installed in this session, including the
+	 * unchanged ones. Every other .jar file in them, e.g. of a dependency which
+	 * was dropped, is then deleted, or moved into a new directory
+	 * {@code .scijava-install/quarantine/<timestamp>/} for inspection. Newer
+	 * versions kept according to the {@link #deleteOtherVersionsPolicy} are
+	 * retained. Other files, and other directories, are never touched.
+	 * </p>
+	 * <p>
+	 * In a multi-module build, populate-app syncs only once all modules using
+	 * it installed their artifacts: with {@code aggregate}, in the aggregated
+	 * installation, and otherwise in the last of those modules. As the set of
+	 * needed files is unknown when {@link #ignoreDependencies dependencies are
+	 * ignored}, nothing is synced then.
+	 * </p>
+	 */
+	@Parameter(property = SYNC_PROPERTY, defaultValue = "off")
+	SyncMode sync;
+
+	/**
+	 * Number of threads to use for installing artifacts; by default, the number
+	 * of available processors, but at most {@value #MAX_DEFAULT_INSTALL_THREADS}.
+	 * <p>
+	 * The installation is planned up front for all artifacts, including the
+	 * handling of other versions; only the copying is done concurrently, so the
+	 * result does not depend on the number of threads.
+	 * </p>
+	 */
+	@Parameter(property = INSTALL_THREADS_PROPERTY, defaultValue = "0")
+	int installThreads;
+
+	/**
+	 * How to place artifacts into the application directory.
+	 * <p>
+	 * Besides plain copies, artifacts can be hard-linked, symlinked or cloned
+	 * (copy-on-write, on file systems supporting it) from the local repository,
+	 * which saves both time and disk space for development installations. If
+	 * the requested mode is not available, e.g. because the application
+	 * directory is on a different file system, the next cheaper mode is used,
+	 * falling back to a copy eventually.
+	 * </p>
+	 */
+	@Parameter(property = INSTALL_MODE_PROPERTY, defaultValue = "copy")
+	InstallMode installMode;
+
 	@Parameter(defaultValue = "${session}")
 	MavenSession session;
 
 	@Parameter( defaultValue = "${mojoExecution}", readonly = true )
 	MojoExecution mojoExecution;
 
+	@Component
+	ProjectBuilder mavenProjectBuilder;
+
+	/**
+	 * Used to look up Artifacts in the remote repository.
+	 */
+	@Component
+	ArtifactResolver artifactResolver;
+
+	@Component
+	ArtifactHandlerManager artifactHandlerManager;
+
+	/**
+	 * The dependency resolver to.
+	 */
+	@Component
+	DependencyResolver dependencyResolver;
+
+	/** Caches whether .jar files are ImageJ 1.x plugins. */
+	private PersistentCache ij1PluginCache;
+
+	/** Caches the computed checksums of artifact files. */
+	private PersistentCache sourceChecksumCache;
+
+	/** Manifests of the installed files, per application directory. */
+	private final Map<File, InstallManifest> manifests =
+		new ConcurrentHashMap<>();
+
+	/** The compiled {@link #subdirectoryPatterns}. */
+	private SubdirectoryMatcher subdirectoryMatcher;
+
+	/** Native library extractors, per application directory. */
+	private final Map<File, NativeExtractor> nativeExtractors =
+		new ConcurrentHashMap<>();
+
+	/** The files planned for removal by {@link #planSync}. */
+	private final Set<Path> staleFiles = ConcurrentHashMap.newKeySet();
+
+	/** Index of the files in the target directories, shared by all installs. */
+	private final AppDirectoryIndex appDirectoryIndex = new AppDirectoryIndex();
+
+	/** The compiled {@link #excludes}. */
+	private List<ArtifactPattern> exclusionPatterns;
+
+	/** Places the files according to the {@link #installMode}. */
+	private FileInstaller fileInstaller;
+
 	protected static final String APP_DIRECTORY_PROPERTY = "scijava.app.directory";
 	protected static final String APP_SUBDIRECTORY_PROPERTY = "scijava.app.subdirectory";
 	protected static final String DELETE_OTHER_VERSIONS_POLICY_PROPERTY = "scijava.deleteOtherVersions";
 	protected static final String SUBDIRECTORY_PATTERNS_PROPERTY = "scijava.subdirectoryPatterns";
 	protected static final String IGNORE_DEPENDENCIES_PROPERTY = "scijava.ignoreDependencies";
 	protected static final String IGNORE_OPTIONAL_DEPENDENCIES_PROPERTY = "scijava.ignoreOptionalDependencies";
+	protected static final String INSTALL_THREADS_PROPERTY = "scijava.installThreads";
+	protected static final String UP_TO_DATE_CHECK_PROPERTY = "scijava.upToDateCheck";
+	protected static final String INCREMENTAL_PROPERTY = "scijava.incremental";
+	protected static final String INSTALL_MODE_PROPERTY = "scijava.installMode";
+	protected static final String DRY_RUN_PROPERTY = "scijava.dryRun";
+	protected static final String PERSISTENT_SUBDIRECTORY_CACHE_PROPERTY = "scijava.persistentSubdirectoryCache";
+	protected static final String AGGREGATE_PROPERTY = "scijava.aggregate";
+	protected static final String LOCKFILE_PROPERTY = "scijava.lockfile";
+	protected static final String UPDATE_POLICY_PROPERTY = "scijava.updatePolicy";
+	protected static final String CHECKSUM_POLICY_PROPERTY = "scijava.checksumPolicy";
+	protected static final String OFFLINE_FIRST_PROPERTY = "scijava.offlineFirst";
+	protected static final String OFFLINE_PROPERTY = "scijava.offline";
+	protected static final String PLATFORMS_PROPERTY = "scijava.platforms";
+	protected static final String EXCLUDES_PROPERTY = "scijava.excludes";
+	protected static final String EXTRACT_NATIVES_PROPERTY = "scijava.extractNatives";
+	protected static final String PLUGIN_INDEX_PROPERTY = "scijava.pluginIndex";
+	protected static final String EXPLODED_PROPERTY = "scijava.exploded";
+	protected static final String WATCH_PROPERTY = "scijava.watch";
+	protected static final String SYNC_PROPERTY = "scijava.sync";
 
 	public enum OtherVersions {
 			always, older, never
 	}
 
+	public enum UpToDateCheck {
+			/** The target is up to date if it is newer than the artifact. */
+			timestamp,
+			/** The target is up to date if its SHA-1 checksum matches. */
+			checksum
+	}
+
+	public enum SyncMode {
+			/** Leaves other files alone. */
+			off,
+			/** Deletes the files not needed anymore. */
+			delete,
+			/** Moves the files not needed anymore into the quarantine. */
+			quarantine
+	}
+
+	public enum InstallMode {
+			/** Copies the artifact. */
+			copy("Copying"),
+			/** Clones the artifact, copy-on-write. */
+			reflink("Cloning"),
+			/** Hard-links the artifact. */
+			hardlink("Hard-linking"),
+			/** Symlinks the artifact in the local repository. */
+			symlink("Symlinking");
+
+		private final String verb;
+
+		private InstallMode(final String verb) {
+			this.verb = verb;
+		}
+	}
+
 	protected boolean hasIJ1Dependency(final MavenProject project) {
 		final List<Dependency> dependencies = project.getDependencies();
 		for (final Dependency dependency : dependencies) {
@@ -145,6 +462,97 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 		return false;
 	}
 
+	/** Whether to install purely from the local repository; see {@link #offline}. */
+	protected boolean isOffline() {
+		return offline || session != null && session.isOffline();
+	}
+
+	/**
+	 * Prepares the given request for the installation: when {@link #isOffline()
+	 * offline}, its remote repositories are stripped, and its repository session
+	 * is replaced by an offline copy.
+	 */
+	protected ProjectBuildingRequest prepareRequest(
+		final ProjectBuildingRequest buildingRequest)
+	{
+		if (isOffline()) {
+			buildingRequest.setRemoteRepositories(Collections
+				.<ArtifactRepository> emptyList());
+			if (!goOffline(buildingRequest)) {
+				getLog().warn("Could not switch the repository session offline; " +
+					"repositories declared in dependency POMs may still be contacted");
+			}
+		}
+		return buildingRequest;
+	}
+
+	/**
+	 * Replaces the repository session of the given request by an offline copy.
+	 * <p>
+	 * The session is an {@code org.sonatype.aether} one in Maven 3.0, and an
+	 * {@code org.eclipse.aether} one in later versions, so it is copied
+	 * reflectively, using the {@code DefaultRepositorySystemSession} of its API.
+	 * </p>
+	 *
+	 * @return whether the session is offline now
+	 */
+	private static boolean goOffline(final ProjectBuildingRequest request) {
+		try {
+			final Object repositorySession = request.getClass().getMethod(
+				"getRepositorySession").invoke(request);
+			if (repositorySession == null) return false;
+			for (Class<?> type = repositorySession.getClass(); type != null;
+				type = type.getSuperclass())
+			{
+				for (final Class<?> api : type.getInterfaces()) {
+					final String copyClassName;
+					if (api.getName().equals(
+						"org.eclipse.aether.RepositorySystemSession"))
+					{
+						copyClassName = "org.eclipse.aether.DefaultRepositorySystemSession";
+					}
+					else if (api.getName().equals(
+						"org.sonatype.aether.RepositorySystemSession"))
+					{
+						copyClassName =
+							"org.sonatype.aether.util.DefaultRepositorySystemSession";
+					}
+					else continue;
+					final Class<?> copyClass = Class.forName(copyClassName, true, api
+						.getClassLoader());
+					final Object copy = copyClass.getConstructor(api).newInstance(
+						repositorySession);
+					copyClass.getMethod("setOffline", boolean.class).invoke(copy, true);
+					request.getClass().getMethod("setRepositorySession", api).invoke(
+						request, copy);
+					return true;
+				}
+			}
+			return false;
+		}
+		catch (final ReflectiveOperationException | LinkageError e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Describes a resolution failure: when {@link #isOffline() offline}, the
+	 * description lists all artifacts missing from the local repository.
+	 */
+	protected MojoExecutionException resolutionFailure(final String message,
+		final Exception cause)
+	{
+		final Set<String> missing = isOffline() ? MissingArtifacts.from(cause)
+			: Collections.<String> emptySet();
+		if (missing.isEmpty()) {
+			return new MojoExecutionException(message + ": " + cause.getMessage(),
+				cause);
+		}
+		return new MojoExecutionException(message +
+			"; missing from the local repository (offline):\n  " + String.join(
+				"\n  ", missing), cause);
+	}
+
 	protected String interpolate(final String original,
 		final MavenProject project)
 		throws MojoExecutionException
@@ -188,6 +596,594 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 		}
 	}
 
+	/**
+	 * Resolves the given coordinate and its dependencies, excluding system,
+	 * provided and test scoped ones.
+	 * <p>
+	 * The results are cached for the whole session, by coordinate, filter and
+	 * repositories, so that resolving the same coordinate again, e.g. in another
+	 * execution or by another goal, costs nothing. Failures are not cached. See
+	 * also {@link #lockfile}.
+	 * </p>
+	 */
+	protected Iterable<ArtifactResult> resolveDependencies(
+		final ProjectBuildingRequest buildingRequest,
+		final DependableCoordinate coordinate,
+		final boolean ignoreOptionalDependencies)
+		throws DependencyResolverException
+	{
+		return resolveDependencies(buildingRequest, Collections.singletonList(
+			coordinate), ignoreOptionalDependencies);
+	}
+
+	/**
+	 * Resolves the given coordinates and their dependencies as a single graph,
+	 * so that shared dependencies are resolved only once, and version conflicts
+	 * between them are mediated. Otherwise, this is the same as
+	 * {@link #resolveDependencies(ProjectBuildingRequest, DependableCoordinate, boolean)}.
+	 */
+	protected Iterable<ArtifactResult> resolveDependencies(
+		final ProjectBuildingRequest buildingRequest,
+		final List<? extends DependableCoordinate> coordinates,
+		final boolean ignoreOptionalDependencies)
+		throws DependencyResolverException
+	{
+		final StringBuilder coordinatesKey = new StringBuilder();
+		for (final DependableCoordinate coordinate : coordinates) {
+			if (coordinatesKey.length() > 0) coordinatesKey.append(',');
+			coordinatesKey.append(coordinate.getGroupId()).append(':') //
+				.append(coordinate.getArtifactId()).append(':') //
+				.append(coordinate.getType()).append(':') //
+				.append(coordinate.getClassifier()).append(':') //
+				.append(coordinate.getVersion());
+		}
+		final Set<String> selectedPlatforms = selectedPlatforms();
+		coordinatesKey.append(ignoreOptionalDependencies ? "|-optional"
+			: "|+optional");
+		if (selectedPlatforms != null) {
+			coordinatesKey.append("|platforms=").append(String.join(",",
+				selectedPlatforms));
+		}
+		final List<ArtifactPattern> exclusions = exclusionPatterns();
+		if (!exclusions.isEmpty()) {
+			coordinatesKey.append("|excludes=").append(String.join(",", excludes));
+		}
+		final String inputs = coordinatesKey.toString();
+		final String key = inputs + repositoriesKey(buildingRequest);
+		final Map<String, List<ArtifactResult>> resolved = SessionCache.get(
+			session, "resolved-dependencies", ConcurrentHashMap::new);
+		final List<ArtifactResult> cached = resolved.get(key);
+		if (cached != null) {
+			getLog().debug("Reusing the resolved dependencies of " +
+				coordinatesKey);
+			return cached;
+		}
+
+		final List<ArtifactResult> locked = readLockfile(buildingRequest, inputs);
+		if (locked != null) {
+			resolved.put(key, locked);
+			return locked;
+		}
+
+		TransformableFilter filter = makeTransformableFilterDefaultExclusions(
+			ignoreOptionalDependencies);
+		if (selectedPlatforms != null) {
+			filter = new AndFilter(Arrays.asList(filter, new AbstractFilter() {
+
+				@Override
+				public boolean accept(final Node node, final List<Node> parents) {
+					// NB: The root of a batch resolution has no dependency.
+					final Dependency dependency = node.getDependency();
+					return dependency == null || KnownPlatforms.isForPlatforms(
+						dependency.getClassifier(), selectedPlatforms);
+				}
+			}));
+		}
+		if (!exclusions.isEmpty()) {
+			filter = new AndFilter(Arrays.asList(filter, new AbstractFilter() {
+
+				@Override
+				public boolean accept(final Node node, final List<Node> parents) {
+					// NB: The parents are not passed on by the filter transformer, so
+					// only the node itself can be rejected; subtrees are pruned by the
+					// pushed-down exclusions.
+					return !isExcluded(node, exclusions);
+				}
+			}));
+		}
+		final List<Exclusion> pushedDown = toExclusions(exclusions);
+		final List<ArtifactResult> results = new ArrayList<>();
+		for (final ArtifactResult result : coordinates.size() == 1 && pushedDown
+			.isEmpty() ? dependencyResolver.resolveDependencies(buildingRequest,
+				coordinates.get(0), filter) : dependencyResolver.resolveDependencies(
+					buildingRequest, toDependencies(coordinates, pushedDown), Collections
+						.<Dependency> emptyList(), filter))
+		{
+			results.add(result);
+		}
+		final List<ArtifactResult> unmodifiable = Collections.unmodifiableList(
+			results);
+		resolved.put(key, unmodifiable);
+		writeLockfile(buildingRequest, inputs, unmodifiable);
+		return unmodifiable;
+	}
+
+	/**
+	 * Parses the {@link #platforms} to install natives for.
+	 *
+	 * @return the selected platforms, or null for all of them
+	 */
+	private Set<String> selectedPlatforms() {
+		if (platforms == null || platforms.trim().isEmpty()) return null;
+		final Set<String> selected = new TreeSet<>();
+		for (final String platform : platforms.split(",")) {
+			final String trimmed = platform.trim();
+			if (trimmed.isEmpty()) continue;
+			if ("host".equals(trimmed)) {
+				final String host = KnownPlatforms.hostPlatform();
+				if (host != null) selected.add(host);
+				selected.add(KnownPlatforms.hostClassifier());
+			}
+			else selected.add(trimmed);
+		}
+		return selected;
+	}
+
+	/**
+	 * Reads the artifacts recorded in the {@link #lockfile} for the given
+	 * resolution, if they are still valid.
+	 *
+	 * @param inputs what was resolved, and how it was filtered; this names the
+	 *          resolution in the lockfile
+	 * @return the locked artifacts, or {@code null} if they need to be resolved
+	 */
+	private List<ArtifactResult> readLockfile(
+		final ProjectBuildingRequest request, final String inputs)
+	{
+		if (lockfile == null) return null;
+		try {
+			final ResolutionLock lock = ResolutionLock.read(lockfile, inputs);
+			if (lock == null) return null;
+			final File localRepository = localRepository(request);
+			final File basedir = lockBasedir(request);
+			final List<Artifact> artifacts = new ArrayList<>();
+			final List<String> missing = new ArrayList<>();
+			for (final ResolutionLock.Entry entry : lock.entries) {
+				final String[] gatcv = entry.coordinates.split(":", -1);
+				final Artifact artifact = new DefaultArtifact(gatcv[0], gatcv[1],
+					gatcv[4], "-".equals(entry.scope) ? null : entry.scope, gatcv[2],
+					gatcv[3].isEmpty() ? null : gatcv[3], artifactHandlerManager
+						.getArtifactHandler(gatcv[2]));
+				final File file = ResolutionLock.resolve(entry.path, localRepository,
+					basedir);
+				if (!file.isFile()) {
+					missing.add(entry.coordinates);
+					continue;
+				}
+				// NB: Releases must be unchanged; SNAPSHOTs are expected to change.
+				if (!artifact.isSnapshot() && !entry.sha1.equals(sourceChecksum(
+					file)))
+				{
+					getLog().info("Locked artifact " + artifact + //
+						" changed; resolving dependencies");
+					return null;
+				}
+				artifact.setFile(file);
+				artifacts.add(artifact);
+			}
+			if (!lock.fingerprint.equals(lockFingerprint(request, inputs, artifacts))) {
+				getLog().info("Dependencies changed since " + lockfile +
+					" was written; resolving dependencies");
+				return null;
+			}
+			if (!missing.isEmpty()) {
+				if (isOffline()) {
+					getLog().error("Locked artifacts missing from the local " +
+						"repository:\n  " + String.join("\n  ", missing));
+				}
+				else {
+					getLog().info(missing.size() + " locked artifact(s) missing; " +
+						"resolving dependencies");
+				}
+				return null;
+			}
+
+			getLog().info("Using the dependencies locked in " + lockfile);
+			final List<ArtifactResult> results = new ArrayList<>();
+			for (final Artifact artifact : artifacts) {
+				results.add(() -> artifact);
+			}
+			return Collections.unmodifiableList(results);
+		}
+		catch (final IOException e) {
+			getLog().warn("Could not read " + lockfile + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/** Records the given resolution in the {@link #lockfile}. */
+	private void writeLockfile(final ProjectBuildingRequest request,
+		final String inputs, final List<ArtifactResult> results)
+	{
+		if (lockfile == null) return;
+		try {
+			final File localRepository = localRepository(request);
+			final File basedir = lockBasedir(request);
+			final List<Artifact> artifacts = new ArrayList<>();
+			final List<ResolutionLock.Entry> entries = new ArrayList<>();
+			for (final ArtifactResult result : results) {
+				final Artifact artifact = result.getArtifact();
+				final File file = artifact.getFile();
+				if (file == null || !file.isFile()) {
+					getLog().debug("Not locking dependencies: " + artifact +
+						" is not a file");
+					return;
+				}
+				artifacts.add(artifact);
+				entries.add(new ResolutionLock.Entry(artifact.getGroupId() + ":" +
+					artifact.getArtifactId() + ":" + artifact.getType() + ":" + //
+					(artifact.getClassifier() == null ? "" : artifact.getClassifier()) +
+					":" + artifact.getVersion(), artifact.getScope() == null ? "-"
+						: artifact.getScope(), sourceChecksum(file), ResolutionLock
+							.relativize(file, localRepository, basedir)));
+			}
+			new ResolutionLock(lockFingerprint(request, inputs, artifacts), entries)
+				.write(lockfile, inputs);
+		}
+		catch (final IOException e) {
+			getLog().warn("Could not write " + lockfile + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Computes the fingerprint of the inputs of a resolution: what was resolved
+	 * and how it was filtered, the active profiles, the POM of the project and
+	 * its parents, the user properties those POMs refer to, the effective
+	 * dependencies and dependency management of the project (covering property
+	 * overrides and imported BOMs), and the POMs of the resolved SNAPSHOT
+	 * artifacts.
+	 * <p>
+	 * Other user properties, e.g. {@code -DskipTests}, cannot affect the
+	 * resolution, and are left out so that they do not invalidate the lockfile.
+	 * </p>
+	 */
+	private String lockFingerprint(final ProjectBuildingRequest request,
+		final String inputs, final List<Artifact> artifacts) throws IOException
+	{
+		final MessageDigest digest = Checksums.newSha1();
+		update(digest, inputs);
+		final List<String> profiles = request.getActiveProfileIds() != null
+			? request.getActiveProfileIds() : session == null || session
+				.getRequest() == null ? null : session.getRequest()
+					.getActiveProfiles();
+		if (profiles != null) {
+			for (final String profile : new TreeSet<>(profiles)) {
+				update(digest, "-P" + profile);
+			}
+		}
+		final MavenProject current = request.getProject();
+		final StringBuilder poms = new StringBuilder();
+		for (MavenProject project = current; project != null; project = project
+			.getParent())
+		{
+			final File pom = project.getFile();
+			if (pom != null && pom.isFile()) {
+				final byte[] bytes = Files.readAllBytes(pom.toPath());
+				digest.update(bytes);
+				poms.append(new String(bytes, StandardCharsets.UTF_8));
+			}
+		}
+		final Properties userProperties = request.getUserProperties() != null
+			? request.getUserProperties() : session == null ? null : session
+				.getUserProperties();
+		if (userProperties != null) {
+			final String text = poms.toString();
+			for (final String name : new TreeSet<>(userProperties
+				.stringPropertyNames()))
+			{
+				if (!refersTo(text, name)) continue;
+				update(digest, "-D" + name + "=" + userProperties.getProperty(name));
+			}
+		}
+		if (current != null) {
+			for (final Dependency dependency : current.getDependencies()) {
+				update(digest, "dependency=" + dependencyKey(dependency));
+			}
+			if (current.getDependencyManagement() != null) {
+				for (final Dependency dependency : current.getDependencyManagement()
+					.getDependencies())
+				{
+					update(digest, "managed=" + dependencyKey(dependency));
+				}
+			}
+		}
+		for (final Artifact artifact : artifacts) {
+			if (!artifact.isSnapshot()) continue;
+			digest.update(artifact.getId().getBytes(StandardCharsets.UTF_8));
+			final File pom = snapshotPom(artifact);
+			if (pom != null) digest.update(Files.readAllBytes(pom.toPath()));
+		}
+		return Checksums.hex(digest.digest());
+	}
+
+	/**
+	 * Whether the given POMs refer to the given property: by interpolating it,
+	 * or by activating a profile with it.
+	 */
+	static boolean refersTo(final String poms, final String property) {
+		return poms.contains("${" + property + "}") || //
+			poms.contains("<name>" + property + "</name>") || //
+			poms.contains("<name>!" + property + "</name>");
+	}
+
+	private static void update(final MessageDigest digest, final String value) {
+		digest.update(value.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) '\n');
+	}
+
+	/** Describes everything about a dependency which affects the resolution. */
+	private static String dependencyKey(final Dependency dependency) {
+		final StringBuilder key = new StringBuilder(dependency
+			.getManagementKey()).append(':').append(dependency.getVersion()) //
+				.append(':').append(dependency.getScope()) //
+				.append(':').append(dependency.isOptional());
+		for (final Exclusion exclusion : dependency.getExclusions()) {
+			key.append(":!").append(exclusion.getGroupId()).append(':').append(
+				exclusion.getArtifactId());
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Finds the POM of the given SNAPSHOT artifact: that of the reactor project,
+	 * or the one next to the artifact in the local repository.
+	 */
+	private File snapshotPom(final Artifact artifact) {
+		if (session != null && session.getProjects() != null) {
+			for (final MavenProject project : session.getProjects()) {
+				if (project.getGroupId().equals(artifact.getGroupId()) && //
+					project.getArtifactId().equals(artifact.getArtifactId()) && //
+					project.getVersion().equals(artifact.getBaseVersion()))
+				{
+					return project.getFile();
+				}
+			}
+		}
+		final File directory = artifact.getFile().getParentFile();
+		for (final String version : Arrays.asList(artifact.getBaseVersion(),
+			artifact.getVersion()))
+		{
+			final File pom = new File(directory, artifact.getArtifactId() + "-" +
+				version + ".pom");
+			if (pom.isFile()) return pom;
+		}
+		return null;
+	}
+
+	private static File localRepository(final ProjectBuildingRequest request) {
+		return request.getLocalRepository() == null ? null : new File(request
+			.getLocalRepository().getBasedir());
+	}
+
+	/** Compiles the {@link #excludes}, once. */
+	private synchronized List<ArtifactPattern> exclusionPatterns() {
+		if (exclusionPatterns == null) {
+			final List<ArtifactPattern> patterns = new ArrayList<>();
+			if (excludes != null) {
+				for (final String exclude : excludes) {
+					if (!exclude.trim().isEmpty()) {
+						patterns.add(ArtifactPattern.compile(exclude.trim()));
+					}
+				}
+			}
+			exclusionPatterns = patterns;
+		}
+		return exclusionPatterns;
+	}
+
+	private static boolean isExcluded(final Node node,
+		final List<ArtifactPattern> exclusions)
+	{
+		final Dependency dependency = node.getDependency();
+		if (dependency == null) return false;
+		for (final ArtifactPattern exclusion : exclusions) {
+			if (exclusion.matches(dependency.getGroupId(), dependency
+				.getArtifactId(), dependency.getVersion(), dependency.getClassifier(),
+				dependency.getType()))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Converts the exclusion patterns which can be expressed as dependency
+	 * exclusions.
+	 */
+	private static List<Exclusion> toExclusions(
+		final List<ArtifactPattern> patterns)
+	{
+		final List<Exclusion> exclusions = new ArrayList<>();
+		for (final ArtifactPattern pattern : patterns) {
+			final String[] ga = pattern.literalGroupAndArtifact();
+			if (ga == null) continue;
+			final Exclusion exclusion = new Exclusion();
+			exclusion.setGroupId(ga[0]);
+			exclusion.setArtifactId(ga[1]);
+			exclusions.add(exclusion);
+		}
+		return exclusions;
+	}
+
+	private static List<Dependency> toDependencies(
+		final List<? extends DependableCoordinate> coordinates,
+		final List<Exclusion> exclusions)
+	{
+		final List<Dependency> dependencies = new ArrayList<>();
+		for (final DependableCoordinate coordinate : coordinates) {
+			final Dependency dependency = new Dependency();
+			dependency.setGroupId(coordinate.getGroupId());
+			dependency.setArtifactId(coordinate.getArtifactId());
+			dependency.setVersion(coordinate.getVersion());
+			if (coordinate.getType() != null) dependency.setType(coordinate.getType());
+			dependency.setClassifier(coordinate.getClassifier());
+			for (final Exclusion exclusion : exclusions) {
+				dependency.addExclusion(exclusion.clone());
+			}
+			dependencies.add(dependency);
+		}
+		return dependencies;
+	}
+
+	/**
+	 * Gets the directory to which the {@link #lockfile} records locations outside
+	 * the local repository: the project's base directory, or else the root of
+	 * the reactor.
+	 */
+	private File lockBasedir(final ProjectBuildingRequest request) {
+		if (request.getProject() != null && request.getProject()
+			.getBasedir() != null)
+		{
+			return request.getProject().getBasedir();
+		}
+		return session == null || session.getExecutionRootDirectory() == null
+			? null : new File(session.getExecutionRootDirectory());
+	}
+
+	/**
+	 * Describes where a resolution is done from, to complete the key under which
+	 * it is cached. The local repository is left out, as it is the same for the
+	 * whole session.
+	 */
+	private static String repositoriesKey(final ProjectBuildingRequest request) {
+		final StringBuilder key = new StringBuilder();
+		if (request.getRemoteRepositories() != null) {
+			for (final ArtifactRepository repository : request
+				.getRemoteRepositories())
+			{
+				key.append('|').append(repository.getId()).append('=').append(
+					repository.getUrl());
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Resolves only the artifact of the given coordinate, without collecting or
+	 * downloading any of its dependencies.
+	 */
+	protected ArtifactResult resolveArtifact(
+		final ProjectBuildingRequest buildingRequest,
+		final DependableCoordinate coordinate) throws ArtifactResolverException
+	{
+		final String type = coordinate.getType() == null ? "jar" : coordinate
+			.getType();
+		final DefaultArtifactCoordinate artifactCoordinate =
+			new DefaultArtifactCoordinate();
+		artifactCoordinate.setGroupId(coordinate.getGroupId());
+		artifactCoordinate.setArtifactId(coordinate.getArtifactId());
+		artifactCoordinate.setVersion(coordinate.getVersion());
+		artifactCoordinate.setClassifier(coordinate.getClassifier());
+		artifactCoordinate.setExtension(artifactHandlerManager.getArtifactHandler(
+			type).getExtension());
+		return artifactResolver.resolveArtifact(buildingRequest,
+			artifactCoordinate);
+	}
+
+	/**
+	 * Gets the {@code scijava.app.subdirectory} property of the given artifact's
+	 * POM, or {@code null} if it is not set.
+	 * <p>
+	 * Where possible, the property is read directly from the POM and its
+	 * parents in the local repository (see {@link PomPropertyReader}); only
+	 * otherwise, the project is built. Either way, the result is cached for the
+	 * whole session, by groupId, artifactId and version; see also
+	 * {@link #persistentSubdirectoryCache}. Failures are not cached.
+	 * </p>
+	 */
+	protected String getAppSubdirectoryProperty(final Artifact artifact)
+		throws ProjectBuildingException
+	{
+		final String key = artifact.getGroupId() + ":" +
+			artifact.getArtifactId() + ":" + artifact.getVersion();
+		final Map<String, Optional<String>> lookups = SessionCache.get(session,
+			"app-subdirectories", ConcurrentHashMap::new);
+		final Optional<String> cached = lookups.get(key);
+		if (cached != null) return cached.orElse(null);
+
+		final PersistentCache persistent = persistentSubdirectoryCache &&
+			!artifact.isSnapshot() ? appSubdirectoryCache() : null;
+		String subdir = persistent == null ? null : persistent.get(key);
+		if (subdir == null) subdir = readAppSubdirectoryProperty(artifact);
+		if (subdir == null) {
+			final ProjectBuildingResult build = mavenProjectBuilder.build(artifact,
+				session.getProjectBuildingRequest());
+			final Properties properties = build.getProject().getProperties();
+			subdir = properties.getProperty(APP_SUBDIRECTORY_PROPERTY, "");
+		}
+		if (persistent != null) persistent.put(key, subdir);
+		if (subdir.isEmpty()) subdir = null;
+		lookups.put(key, Optional.ofNullable(subdir));
+		return subdir;
+	}
+
+	/**
+	 * Reads the {@code scijava.app.subdirectory} property from the raw POMs in
+	 * the local repository.
+	 *
+	 * @return the value, the empty string if it is unset, or {@code null} if it
+	 *         cannot be determined without building the project
+	 */
+	private String readAppSubdirectoryProperty(final Artifact artifact) {
+		final File localRepository = session == null ||
+			session.getLocalRepository() == null ? null : new File(session
+				.getLocalRepository().getBasedir());
+		final File file = artifact.getFile();
+		// NB: Artifacts of the reactor might have stale POMs in the repository.
+		if (localRepository == null || file == null || !file.getAbsolutePath()
+			.startsWith(localRepository.getAbsolutePath() + File.separator))
+		{
+			return null;
+		}
+
+		final PomPropertyReader reader = SessionCache.get(session,
+			"pom-property-reader", () -> new PomPropertyReader(localRepository,
+				APP_SUBDIRECTORY_PROPERTY));
+		File pom = reader.pomFile(artifact.getGroupId(), artifact.getArtifactId(),
+			artifact.getBaseVersion());
+		if (!pom.isFile()) pom = new File(pom.getParentFile(), artifact
+			.getArtifactId() + "-" + artifact.getVersion() + ".pom");
+		if (!pom.isFile()) return null;
+		try {
+			final String value = reader.read(pom);
+			return value == null ? "" : value;
+		}
+		catch (final IOException e) {
+			getLog().debug("Building the POM of " + artifact + ": " + e
+				.getMessage());
+			return null;
+		}
+	}
+
+	private PersistentCache appSubdirectoryCache() {
+		return SessionCache.get(session, "app-subdirectories.properties",
+			() -> new PersistentCache(cacheFile("app-subdirectories.properties"),
+				"scijava.app.subdirectory of released artifacts"));
+	}
+
+	/**
+	 * Creates the pipeline through which the planned copies are made, using
+	 * {@link #installThreads} workers.
+	 */
+	protected InstallPipeline createInstallPipeline() {
+		return new InstallPipeline(installThreads > 0 ? installThreads : Math.min(
+			Runtime.getRuntime().availableProcessors(), MAX_DEFAULT_INSTALL_THREADS));
+	}
+
+	/** The most threads used for installing when none are configured. */
+	private static final int MAX_DEFAULT_INSTALL_THREADS = 4;
+
 	protected void installArtifact(final Artifact artifact,
 		final File appDir, final boolean force,
 		final OtherVersions otherVersionsPolicy) throws IOException
@@ -198,16 +1194,37 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 	protected void installArtifact(final Artifact artifact,
 		final File appDir, final String appSubdir, final boolean force,
 		final OtherVersions otherVersionsPolicy) throws IOException
+	{
+		final InstallPlan plan = new InstallPlan();
+		planInstall(plan, artifact, appDir, appSubdir, force, otherVersionsPolicy);
+		applyPlan(plan);
+	}
+
+	/**
+	 * Adds the operations needed to install the given artifact to the plan.
+	 * <p>
+	 * Nothing is changed on disk yet. The {@link AppDirectoryIndex} does
+	 * reflect the planned state, though, so that artifacts planned later see
+	 * the files planned earlier, just as if they had been installed one by one.
+	 * </p>
+	 */
+	protected void planInstall(final InstallPlan plan, final Artifact artifact,
+		final File appDir, final String appSubdir, final boolean force,
+		final OtherVersions otherVersionsPolicy) throws IOException
 	{
 		if (!"jar".equals(artifact.getType())) return;
 
 		final File source = artifact.getFile();
+		// NB: Build output directories are linked under the name of the jar.
+		final String fileName = source.isDirectory() ? artifact.getArtifactId() +
+			"-" + artifact.getVersion() + (artifact.getClassifier() == null ? ""
+				: "-" + artifact.getClassifier()) + ".jar" : source.getName();
 		final File targetDirectory;
 
 		if (appSubdir != null && !appSubdir.equals("")) {
 			targetDirectory = new File(appDir, appSubdir);
 		}
-		else if (isIJ1Plugin(source)) {
+		else if (isIJ1Plugin(source, fileName)) {
 			targetDirectory = new File(appDir, "plugins");
 		}
 		else {
@@ -215,13 +1232,14 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 			targetDirectory = subDir == null ? //
 				new File(appDir, "jars") : new File(appDir, subDir);
 		}
-		final String fileName = source.getName();
 		final File target = new File(targetDirectory, fileName);
 
 		boolean newerVersion = false;
 		final Path targetPath = Paths.get(target.toURI());
 		final Map<Path, String> otherVersions = //
 			getEncroachingVersions(targetPath.getParent(), artifact);
+		// NB: The target itself is subject to the up-to-date check below.
+		otherVersions.remove(targetPath.toAbsolutePath().normalize());
 		for (final Path other : otherVersions.keySet()) {
 			final Path otherName = other.getFileName();
 			switch (otherVersionsPolicy) {
@@ -240,32 +1258,371 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 							majorVersionToInstall + " != " + //
 							versionToString(majorVersionOther));
 					}
-					if (newerVersion) break;
+					if (newerVersion) {
+						installedFiles().put(other, appDir);
+						break;
+					}
 					//$FALL-THROUGH$
 				case always:
-					if (Files.deleteIfExists(other)) {
-						getLog().info("Deleted overridden " + otherName);
-						newerVersion = false;
-					}
-					else getLog().warn("Could not delete overridden " + otherName);
+					plan.delete(appDir, other);
+					appDirectoryIndex.removed(other);
+					newerVersion = false;
 					break;
 			}
 		}
 
-		if (!force && target.exists() &&
-			target.lastModified() > source.lastModified())
-		{
-			getLog().info("Dependency " + fileName + " is already there; skipping");
+		if (!force && isUpToDate(source, target, manifest(appDir))) {
+			plan.skip(artifact, appDir, targetPath);
+			installedFiles().put(targetPath.toAbsolutePath().normalize(), appDir);
 		}
 		else if (newerVersion) {
-			getLog().info("A newer version for " + fileName + " was detected; skipping");
+			plan.superseded(artifact, appDir, targetPath);
 		}
 		else {
-			getLog().info("Copying " + fileName + " to " + targetDirectory);
-			FileUtils.copyFile(source, target);
+			plan.copy(artifact, appDir, targetPath);
+			appDirectoryIndex.added(targetPath);
+			installedFiles().put(targetPath.toAbsolutePath().normalize(), appDir);
+		}
+	}
+
+	/**
+	 * Adds the operations needed to {@link #sync} the application directories
+	 * to the plan: every .jar file in the directories installed into which was
+	 * not installed in this session is deleted or quarantined.
+	 * <p>
+	 * Call this after all artifacts are planned. Each directory is listed only
+	 * once, by the {@link AppDirectoryIndex}.
+	 * </p>
+	 */
+	protected void planSync(final InstallPlan plan) throws IOException {
+		if (sync == null || sync == SyncMode.off) return;
+		if (ignoreDependencies) {
+			getLog().warn("Not syncing, as dependencies are ignored");
+			return;
+		}
+		final Map<Path, File> installed = installedFiles();
+		final Map<Path, File> directories = new TreeMap<>();
+		for (final Map.Entry<Path, File> entry : installed.entrySet()) {
+			directories.put(entry.getKey().getParent(), entry.getValue());
+		}
+		for (final Map.Entry<Path, File> entry : directories.entrySet()) {
+			for (final Path file : appDirectoryIndex.files(entry.getKey())) {
+				// NB: Links to build output directories are fair game, though.
+				if (installed.containsKey(file) || !file.getFileName().toString()
+					.endsWith(".jar") || Files.isDirectory(file,
+						LinkOption.NOFOLLOW_LINKS))
+				{
+					continue;
+				}
+				if (sync == SyncMode.quarantine) {
+					plan.quarantine(entry.getValue(), file);
+				}
+				else plan.delete(entry.getValue(), file);
+				staleFiles.add(file);
+				appDirectoryIndex.removed(file);
+			}
 		}
 	}
 
+	/**
+	 * Gets the files installed, or found to be installed, in this session, with
+	 * the application directories they belong to.
+	 */
+	private Map<Path, File> installedFiles() {
+		return SessionCache.get(session, "installed-files",
+			ConcurrentHashMap::new);
+	}
+
+	/**
+	 * Applies the given plan; in {@link #dryRun} mode, the plan is only printed.
+	 * <p>
+	 * All deletions are done first. Then the files are copied through the
+	 * {@link InstallPipeline}, directory by directory. Finally, the
+	 * {@link InstallManifest}s and caches are saved.
+	 * </p>
+	 */
+	protected void applyPlan(final InstallPlan plan) throws IOException {
+		if (dryRun) {
+			printPlan(plan);
+			return;
+		}
+
+		for (final InstallPlan.Operation operation : plan.operations(
+			Action.delete))
+		{
+			final Path otherName = operation.target.getFileName();
+			final String what = staleFiles.contains(operation.target) ? "stale"
+				: "overridden";
+			if (Files.deleteIfExists(operation.target)) {
+				manifest(operation.appDir).remove(operation.target);
+				nativeExtractor(operation.appDir).remove(operation.target);
+				getLog().info("Deleted " + what + " " + otherName);
+			}
+			else getLog().warn("Could not delete " + what + " " + otherName);
+		}
+
+		final List<InstallPlan.Operation> quarantined = plan.operations(
+			Action.quarantine);
+		if (!quarantined.isEmpty()) {
+			final String timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(
+				new Date());
+			final Map<File, Path> quarantines = new LinkedHashMap<>();
+			for (final InstallPlan.Operation operation : quarantined) {
+				final InstallManifest manifest = manifest(operation.appDir);
+				Path directory = quarantines.get(operation.appDir);
+				if (directory == null) {
+					directory = createQuarantine(operation.appDir, timestamp);
+					quarantines.put(operation.appDir, directory);
+				}
+				final Path quarantine = directory.resolve(manifest.relativePath(
+					operation.target));
+				Files.createDirectories(quarantine.getParent());
+				Files.move(operation.target, quarantine);
+				manifest.remove(operation.target);
+				nativeExtractor(operation.appDir).remove(operation.target);
+				getLog().info("Quarantined " + operation.target.getFileName());
+			}
+		}
+
+		try (final InstallPipeline pipeline = createInstallPipeline()) {
+			for (final InstallPlan.Operation operation : plan.operations(
+				Action.copy))
+			{
+				pipeline.submit(() -> copy(operation));
+			}
+			pipeline.await();
+		}
+
+		for (final InstallPlan.Operation operation : plan.operations()) {
+			final File source = operation.artifact == null ? null
+				: operation.artifact.getFile();
+			if (operation.action == Action.skip) {
+				getLog().info("Dependency " + operation.target.getFileName() +
+					" is already there; skipping");
+				manifest(operation.appDir).put(operation.artifact, operation.target
+					.toFile(), checksum(source));
+				extractNatives(operation);
+			}
+			else if (operation.action == Action.superseded) {
+				getLog().info("A newer version for " + source.getName() +
+					" was detected; skipping");
+			}
+		}
+
+		if (pluginIndex) updatePluginIndexes();
+		saveCaches();
+	}
+
+	/**
+	 * Creates a new quarantine directory in the given application directory,
+	 * named by the given timestamp, and numbered if another one of the same
+	 * name exists already.
+	 */
+	static Path createQuarantine(final File appDir, final String timestamp)
+		throws IOException
+	{
+		final Path parent = appDir.toPath().resolve(".scijava-install/quarantine");
+		Files.createDirectories(parent);
+		for (int i = 1;; i++) {
+			final Path directory = parent.resolve(i == 1 ? timestamp : timestamp +
+				"-" + i);
+			try {
+				return Files.createDirectory(directory);
+			}
+			catch (final FileAlreadyExistsException e) {
+				// NB: Quarantined in the same second already; try the next number.
+			}
+		}
+	}
+
+	private void copy(final InstallPlan.Operation operation) throws IOException {
+		final Artifact artifact = operation.artifact;
+		final File source = artifact.getFile();
+		try {
+			final InstallMode mode = fileInstaller().install(source.toPath(),
+				operation.target, manifest(operation.appDir).contains(
+					operation.target));
+			getLog().info(mode.verb + " " + operation.target.getFileName() +
+				" to " + operation.target.getParent());
+			manifest(operation.appDir).put(artifact, operation.target.toFile(),
+				checksum(source));
+		}
+		catch (final IOException e) {
+			throw new IOException("Couldn't download artifact " + artifact + ": " +
+				e.getMessage(), e);
+		}
+		extractNatives(operation);
+	}
+
+	/**
+	 * Extracts the native libraries of the installed artifact, if it is a
+	 * native-classifier jar for one of the selected {@link #platforms}.
+	 */
+	private void extractNatives(final InstallPlan.Operation operation)
+		throws IOException
+	{
+		final Artifact artifact = operation.artifact;
+		final String classifier = artifact.getClassifier();
+		if (!extractNatives || !"jar".equals(artifact.getType()) ||
+			!KnownPlatforms.isNativeClassifier(classifier))
+		{
+			return;
+		}
+		final Set<String> selected = selectedPlatforms();
+		if (selected != null && !KnownPlatforms.isForPlatforms(classifier,
+			selected))
+		{
+			return;
+		}
+		final String shortName = KnownPlatforms.platform(classifier);
+		final String platform = shortName != null ? shortName : KnownPlatforms
+			.stripNativePrefix(classifier);
+		try {
+			final List<String> skipped = new ArrayList<>();
+			final int count = nativeExtractor(operation.appDir).extract(
+				operation.target, sourceChecksum(artifact.getFile()), platform,
+				skipped);
+			if (count > 0) {
+				getLog().info("Extracted " + count + " native libraries from " +
+					operation.target.getFileName() + " to lib/" + platform);
+			}
+			for (final String library : skipped) {
+				getLog().warn("Not extracting " + library + " from " +
+					operation.target.getFileName() +
+					": it was not installed by this plugin");
+			}
+		}
+		catch (final IOException e) {
+			throw new IOException("Couldn't extract native libraries from " +
+				artifact + ": " + e.getMessage(), e);
+		}
+	}
+
+	private NativeExtractor nativeExtractor(final File appDir) {
+		return nativeExtractors.computeIfAbsent(appDir.getAbsoluteFile(),
+			NativeExtractor::new);
+	}
+
+	/**
+	 * Updates the {@link #pluginIndex} of every application directory installed
+	 * into.
+	 */
+	private void updatePluginIndexes() throws IOException {
+		for (final File appDir : manifests.keySet()) {
+			final PluginIndex index = new PluginIndex(appDir);
+			if (index.update()) getLog().info("Updated " + index.file());
+		}
+	}
+
+	private void printPlan(final InstallPlan plan) {
+		if (plan.isEmpty()) {
+			getLog().info("Dry run: nothing to do");
+			return;
+		}
+		getLog().info("Dry run: the following operations would be performed");
+		for (final InstallPlan.Operation operation : plan.operations()) {
+			getLog().info("  " + operation);
+		}
+		final Map<Action, Integer> counts = plan.counts();
+		getLog().info(counts.get(Action.copy) + " to copy, " + //
+			counts.get(Action.skip) + " up to date, " + //
+			counts.get(Action.delete) + " to delete, " + //
+			counts.get(Action.quarantine) + " to quarantine, " + //
+			counts.get(Action.superseded) + " superseded by newer versions");
+	}
+
+	private synchronized FileInstaller fileInstaller() {
+		if (fileInstaller == null) fileInstaller = new FileInstaller(installMode);
+		return fileInstaller;
+	}
+
+	/**
+	 * Determines whether the given artifact is still installed in the given
+	 * application directory as recorded in its {@link InstallManifest}, and
+	 * hence can be skipped altogether.
+	 * <p>
+	 * This is only the case in {@link #incremental} mode.
+	 * </p>
+	 */
+	protected boolean isInstalled(final Artifact artifact, final File appDir) {
+		if (!incremental || !"jar".equals(artifact.getType())) return false;
+		final InstallManifest manifest = manifest(appDir);
+		if (!manifest.isInstalled(artifact)) return false;
+		getLog().debug("Dependency " + artifact + " is unchanged; skipping");
+		installedFiles().put(manifest.installedFile(artifact).toPath()
+			.toAbsolutePath().normalize(), appDir);
+		return true;
+	}
+
+	/**
+	 * Determines whether the given target file is already an up-to-date copy of
+	 * the source file, according to the {@link #upToDateCheck}.
+	 */
+	private boolean isUpToDate(final File source, final File target,
+		final InstallManifest manifest) throws IOException
+	{
+		if (!target.exists()) return false;
+		// NB: A link to the artifact is up to date by definition.
+		if (Files.isSameFile(source.toPath(), target.toPath())) return true;
+		// NB: A directory is only ever linked, so anything else is outdated.
+		if (source.isDirectory()) return false;
+		if (upToDateCheck != UpToDateCheck.checksum) {
+			return target.lastModified() > source.lastModified();
+		}
+
+		// Look up the checksum recorded when the target was installed; only if
+		// the target has been changed since, compute its checksum afresh.
+		final InstallManifest.Entry entry = manifest.get(target);
+		final String targetChecksum = entry != null &&
+			!InstallManifest.UNKNOWN.equals(entry.sha1) ? entry.sha1 : Checksums
+				.sha1(target);
+		return targetChecksum.equals(sourceChecksum(source));
+	}
+
+	/**
+	 * Gets the checksum of the given artifact file to record in the manifest,
+	 * if it is needed for the {@link #upToDateCheck}.
+	 */
+	private String checksum(final File source) throws IOException {
+		return upToDateCheck == UpToDateCheck.checksum && !source.isDirectory()
+			? sourceChecksum(source) : null;
+	}
+
+	/**
+	 * Gets the SHA-1 checksum of the given artifact file. The {@code .sha1} file
+	 * stored next to it in the local repository is preferred; otherwise, the
+	 * checksum is computed, and cached by path, size and modification time.
+	 */
+	private String sourceChecksum(final File source) throws IOException {
+		final String sidecar = Checksums.sidecarSha1(source);
+		if (sidecar != null) return sidecar;
+
+		final PersistentCache cache = sourceChecksumCache();
+		final String key = source.getAbsolutePath();
+		final String stamp = InstallManifest.stamp(source);
+		final String cached = cache.get(key);
+		if (cached != null && cached.startsWith(stamp)) {
+			return cached.substring(stamp.length());
+		}
+		final String sha1 = Checksums.sha1(source);
+		cache.put(key, stamp + sha1);
+		return sha1;
+	}
+
+	private synchronized PersistentCache sourceChecksumCache() {
+		if (sourceChecksumCache == null) {
+			sourceChecksumCache = new PersistentCache(cacheFile("sha1.properties"),
+				"SHA-1 checksums of artifacts (size:mtime:sha1)");
+		}
+		return sourceChecksumCache;
+	}
+
+	/** Gets the {@link InstallManifest} of the given application directory. */
+	private InstallManifest manifest(final File appDir) {
+		return manifests.computeIfAbsent(appDir.getAbsoluteFile(),
+			InstallManifest::new);
+	}
+
 	protected static TransformableFilter makeTransformableFilterDefaultExclusions(
 			final boolean ignoreOptionalDependencies) {
 		return makeTransformableFilter(ignoreOptionalDependencies, "system", "provided", "test");
@@ -279,7 +1636,9 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 			TransformableFilter notOptionalFilter = new AbstractFilter() {
 				@Override
 				public boolean accept(Node node, List<Node> parents) {
-					return !node.getDependency().isOptional();
+					// NB: The root of a batch resolution has no dependency.
+					final Dependency dependency = node.getDependency();
+					return dependency == null || !dependency.isOptional();
 				}
 			};
 			return new AndFilter(Arrays.asList(scopeFilter, notOptionalFilter));
@@ -293,44 +1652,105 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 		return v == null || v.isEmpty() ? "(none)" : v;
 	}
 
-	private static boolean isIJ1Plugin(final File file) {
-		final String name = file.getName();
+	/**
+	 * Determines whether the given file is an ImageJ 1.x plugin, i.e. whether
+	 * it contains a {@code plugins.config} file.
+	 * <p>
+	 * Directories are either a project (with
+	 * {@code src/main/resources/plugins.config}) or its build output (with
+	 * {@code plugins.config}); their name is taken from the jar they stand in
+	 * for.
+	 * </p>
+	 * <p>
+	 * For .jar files, the entry is looked up directly in the zip's central
+	 * directory, and the answer is cached persistently by path, size and
+	 * modification time, so unchanged .jar files are never opened again.
+	 * </p>
+	 */
+	boolean isIJ1Plugin(final File file, final String name) {
 		if (name.indexOf('_') < 0 || !file.exists()) return false;
 		if (file.isDirectory()) {
-			return new File(file, "src/main/resources/plugins.config").exists();
+			return new File(file, "src/main/resources/plugins.config").exists() ||
+				new File(file, "plugins.config").exists();
 		}
 		if (!name.endsWith(".jar")) return false;
 
-		try (final JarFile jar = new JarFile(file)) {
-			for (final JarEntry entry : Collections.list(jar.entries())) {
-				if (entry.getName().equals("plugins.config")) {
-					jar.close();
-					return true;
-				}
-			}
+		final PersistentCache cache = ij1PluginCache();
+		final String key = file.getAbsolutePath();
+		final String stamp = file.length() + ":" + file.lastModified() + ":";
+		final String cached = cache.get(key);
+		if (cached != null && cached.startsWith(stamp)) {
+			return Boolean.parseBoolean(cached.substring(stamp.length()));
+		}
+
+		boolean result = false;
+		try (final ZipFile jar = new ZipFile(file)) {
+			result = jar.getEntry("plugins.config") != null;
 		}
 		catch (final Throwable t) {
 			// obviously not a plugin...
 		}
-		return false;
+		cache.put(key, stamp + result);
+		return result;
 	}
 
-	private String subdirectory(final Artifact artifact) {
-		if (subdirectoryPatterns == null || subdirectoryPatterns.isEmpty()) {
-			getLog().debug("Using default subdirectory patterns");
-			subdirectoryPatterns = KnownPlatforms.nativeSubdirectoryPatterns();
+	private synchronized PersistentCache ij1PluginCache() {
+		if (ij1PluginCache == null) {
+			ij1PluginCache = new PersistentCache(cacheFile("ij1-plugins.properties"),
+				"Whether .jar files are ImageJ 1.x plugins (size:mtime:result)");
 		}
+		return ij1PluginCache;
+	}
+
+	/**
+	 * Gets the file persisting the cache of the given name, beneath the local
+	 * repository.
+	 *
+	 * @return The cache file, or null if there is no local repository.
+	 */
+	protected File cacheFile(final String name) {
+		if (session == null || session.getLocalRepository() == null) return null;
+		final File cacheDir = new File(session.getLocalRepository().getBasedir(),
+			".cache/scijava-maven-plugin");
+		return new File(cacheDir, name);
+	}
+
+	/** Persists the caches which were updated while installing artifacts. */
+	protected void saveCaches() {
+		try {
+			if (ij1PluginCache != null) ij1PluginCache.save();
+			if (sourceChecksumCache != null) sourceChecksumCache.save();
+			if (persistentSubdirectoryCache) appSubdirectoryCache().save();
+			for (final InstallManifest manifest : manifests.values()) {
+				manifest.save();
+			}
+			for (final NativeExtractor extractor : nativeExtractors.values()) {
+				extractor.save();
+			}
+		}
+		catch (final IOException e) {
+			getLog().warn("Could not save cache: " + e.getMessage());
+		}
+	}
+
+	private String subdirectory(final Artifact artifact) {
+		final String subdirectory = subdirectoryMatcher().subdirectory(artifact);
 		getLog().debug("Checking artifact: " + artifact.getGroupId() +
 			":" + artifact.getArtifactId() + ":" + artifact.getVersion() + ":" +
-			artifact.getClassifier());
-		for (final SubdirectoryPattern pattern : subdirectoryPatterns) {
-			if (pattern.matches(artifact)) {
-				getLog().debug("- Versus pattern " + pattern.subdirectory + "? MATCH");
-				return pattern.subdirectory;
+			artifact.getClassifier() + " -> " + (subdirectory == null ? "NOPE" :
+				subdirectory));
+		return subdirectory;
+	}
+
+	private synchronized SubdirectoryMatcher subdirectoryMatcher() {
+		if (subdirectoryMatcher == null) {
+			if (subdirectoryPatterns == null || subdirectoryPatterns.isEmpty()) {
+				getLog().debug("Using default subdirectory patterns");
+				subdirectoryPatterns = KnownPlatforms.nativeSubdirectoryPatterns();
 			}
-			getLog().debug("- Versus pattern " + pattern.subdirectory + "? NOPE");
+			subdirectoryMatcher = new SubdirectoryMatcher(subdirectoryPatterns);
 		}
-		return null;
+		return subdirectoryMatcher;
 	}
 
 	/**
@@ -349,8 +1769,13 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 
 	/**
 	 * Looks for existing versions of the given artifact in {@code directory}.
+	 * <p>
+	 * Only the files whose names start with the artifactId are considered; they
+	 * are looked up in the {@link AppDirectoryIndex} rather than by listing the
+	 * directory again.
+	 * </p>
 	 *
-	 * @param directory The directory to walk to find possible duplicates.
+	 * @param directory The directory in which to look for possible duplicates.
 	 * @param artifact The target's Maven {@link Artifact}.
 	 * @return A table identifying other versions of the artifact. Each key is a
 	 *         file path to another version, and each value its version string.
@@ -364,46 +1789,28 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 			throw new IllegalArgumentException("Not a directory: " + directory);
 		}
 
-		// Construct a regex for the artifact, of the form:
+		// Parse the candidates, of the form:
 		//
 		// artifactId-version-classifier.type
 		//
 		// with '-classifier' absent for the main classifier.
-
-		final String artifactPattern = Pattern.quote(artifact.getArtifactId());
-
-		final String normalVersion = "[0-9].*?"; // begin with a digit (non-greedy)
-		final String jitpackVersion = "[0-9a-f]{5}[0-9a-f]*"; // git hash
-		final String versionPattern = "(-" + normalVersion + "|-" + jitpackVersion + ")?";
-
+		//
 		// For the main artifact, matching is tricky, because we don't want to
 		// delete artifacts of other classifiers. For example, for lib-1.2.3.jar,
 		// we _do_ want to delete lib-1.2.3-beta-1.jar (i.e. v1.2.3-beta-1), but
 		// _not_ lib-1.2.3-natives-macosx.jar (i.e. classifier natives-macosx).
 		// Unfortunately, we cannot easily tell these cases apart. :-(
-		// So we hardcode known classifiers into the regex as a heuristic.
-		final String rawClassifier = artifact.getClassifier();
-		final String classifier = rawClassifier == null ? "" : rawClassifier;
-		final List<String> classifiers = new ArrayList<>();
-		classifiers.add(classifier);
-		classifiers.addAll(KnownPlatforms.nativeClassifiers());
-		final String[] quotedClassifiers = classifiers.stream() //
-			.map(c -> c.isEmpty() ? "" : "-" + Pattern.quote(c)) //
-			.toArray(String[]::new);
-		final String classifierPattern = //
-			"(" + String.join("|", quotedClassifiers) + ")?";
-
-		final String typePattern = Pattern.quote("." + artifact.getType());
-
-		final String patternString = artifactPattern + //
-			versionPattern + classifierPattern + typePattern;
-		final Pattern pattern = Pattern.compile(patternString);
-
+		// So ArtifactFileName recognizes the known native classifiers as a
+		// heuristic.
 		try {
-			Files.walk(directory, 1).forEach(path -> {
-				final String version = getEncroachingVersion(path, pattern, classifier);
+			for (final Path path : appDirectoryIndex.candidates(directory,
+				artifact.getArtifactId()))
+			{
+				final String version = ArtifactFileName.version(path.getFileName()
+					.toString(), artifact.getArtifactId(), artifact.getClassifier(),
+					artifact.getType());
 				if (version != null) result.put(path, version);
-			});
+			}
 		}
 		catch (IOException e) {
 			getLog().error(e);
@@ -411,23 +1818,4 @@ public abstract class AbstractInstallMojo extends AbstractMojo {
 
 		return result;
 	}
-
-	private static String getEncroachingVersion(final Path path,
-		final Pattern pattern, final String expectedClassifier)
-	{
-		final Matcher m = pattern.matcher(path.getFileName().toString());
-		if (!m.matches()) return null; // not a candidate for a clash
-
-		final String classifier = trimLeadingDash(m.group(2));
-		if (!expectedClassifier.equals(classifier)) return null;
-
-		final String version = trimLeadingDash(m.group(1));
-		return version;
-	}
-
-	private static String trimLeadingDash(final String s) {
-		if (s == null) return "";
-		if (s.startsWith("-")) return s.substring(1);
-		return s;
-	}
 }
@@ -0,0 +1,150 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the files in the target directories of a SciJava
+ * application.
+ * <p>
+ * Each directory is listed at most once, the first time it is queried. Its
+ * files are indexed by every prefix of their name that ends right before a
+ * {@code -} or a {@code .}, so that all the files which might be versions of a
+ * given artifact (i.e. whose name starts with {@code artifactId-} or
+ * {@code artifactId.}) can be found with a single hash lookup. The index must
+ * be kept up to date via {@link #added(Path)} and {@link #removed(Path)} when
+ * files are copied or deleted.
+ * </p>
+ */
+final class AppDirectoryIndex {
+
+	private final Map<Path, Map<String, Set<Path>>> directories =
+		new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the files in the given directory whose names start with the given
+	 * artifactId, followed by a {@code -} or a {@code .}.
+	 */
+	List<Path> candidates(final Path directory, final String artifactId)
+		throws IOException
+	{
+		final Set<Path> files = listing(directory).get(artifactId);
+		if (files == null) return Collections.emptyList();
+		final List<Path> result = new ArrayList<>(files);
+		Collections.sort(result);
+		return result;
+	}
+
+	/** Gets all indexed files in the given directory, sorted. */
+	List<Path> files(final Path directory) throws IOException {
+		final Set<Path> files = new HashSet<>();
+		for (final Set<Path> candidates : listing(directory).values()) {
+			files.addAll(candidates);
+		}
+		final List<Path> result = new ArrayList<>(files);
+		Collections.sort(result);
+		return result;
+	}
+
+	/** Records that the given file was created. */
+	void added(final Path file) throws IOException {
+		final Path path = normalize(file);
+		final Map<String, Set<Path>> listing = listing(path.getParent());
+		for (final String key : keys(path.getFileName().toString())) {
+			listing.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(
+				path);
+		}
+	}
+
+	/** Records that the given file was deleted. */
+	void removed(final Path file) throws IOException {
+		final Path path = normalize(file);
+		final Map<String, Set<Path>> listing = listing(path.getParent());
+		for (final String key : keys(path.getFileName().toString())) {
+			final Set<Path> files = listing.get(key);
+			if (files != null) files.remove(path);
+		}
+	}
+
+	private Map<String, Set<Path>> listing(final Path directory)
+		throws IOException
+	{
+		try {
+			return directories.computeIfAbsent(normalize(directory), dir -> {
+				final Map<String, Set<Path>> listing = new ConcurrentHashMap<>();
+				if (!Files.isDirectory(dir)) return listing;
+				try (final Stream<Path> files = Files.list(dir)) {
+					files.forEach(path -> {
+						for (final String key : keys(path.getFileName().toString())) {
+							listing.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+								.add(path);
+						}
+					});
+				}
+				catch (final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return listing;
+			});
+		}
+		catch (final UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Gets the prefixes of the given file name which end right before a
+	 * {@code -} or a {@code .}.
+	 */
+	static List<String> keys(final String fileName) {
+		final List<String> keys = new ArrayList<>();
+		for (int i = 1; i < fileName.length(); i++) {
+			final char c = fileName.charAt(i);
+			if (c == '-' || c == '.') keys.add(fileName.substring(0, i));
+		}
+		return keys;
+	}
+
+	private static Path normalize(final Path path) {
+		return path.toAbsolutePath().normalize();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+/**
+ * Parses file names of the form {@code artifactId-version-classifier.type} in
+ * a single pass, without regular expressions.
+ * <p>
+ * The version is optional, and must either begin with a digit or be a
+ * (jitpack-style) git hash of at least five lowercase hex digits. The
+ * {@code -classifier} part is optional, too. Because versions may contain
+ * dashes (e.g. {@code 1.2.3-beta-1}), a classifier is only recognized if it is
+ * the expected one, or one of the
+ * {@link KnownPlatforms#isNativeClassifier(String) known native classifiers}.
+ * When several splits are possible, the shortest version wins.
+ * </p>
+ */
+final class ArtifactFileName {
+
+	private ArtifactFileName() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Determines whether the given file name denotes a version of an artifact,
+	 * and if so, which one.
+	 *
+	 * @param fileName The file name to parse.
+	 * @param artifactId The artifactId of the artifact.
+	 * @param classifier The classifier of the artifact, or null for none.
+	 * @param type The type (i.e. file extension) of the artifact.
+	 * @return The version encoded in the file name (empty if there is none),
+	 *         or null if the file name does not denote a version of the
+	 *         artifact with the given classifier.
+	 */
+	static String version(final String fileName, final String artifactId,
+		final String classifier, final String type)
+	{
+		final String expected = classifier == null ? "" : classifier;
+		final int start = artifactId.length();
+		final int end = fileName.length() - type.length() - 1;
+		if (end < start || !fileName.startsWith(artifactId) || //
+			fileName.charAt(end) != '.' || !fileName.endsWith(type))
+		{
+			return null;
+		}
+		final String middle = fileName.substring(start, end);
+
+		final int split = split(middle, expected);
+		if (split < 0) return null;
+
+		final String version = split == 0 ? "" : middle.substring(1, split);
+		final String actual = split == middle.length() ? "" : //
+			middle.substring(split + 1);
+		return expected.equals(actual) ? version : null;
+	}
+
+	/**
+	 * Splits {@code -version-classifier} into its two (optional) parts.
+	 *
+	 * @return The index of the dash introducing the classifier, the length of
+	 *         the string if there is no classifier, or -1 if the string cannot
+	 *         be parsed.
+	 */
+	private static int split(final String middle, final String classifier) {
+		final int length = middle.length();
+		if (length == 0) return 0;
+		if (middle.charAt(0) != '-') return -1;
+
+		if (length > 1 && isDigit(middle.charAt(1))) {
+			// Regular version: the first dash leading to a known classifier ends it.
+			for (int i = 2; i < length; i++) {
+				if (middle.charAt(i) == '-' && isClassifier(middle, i + 1,
+					classifier))
+				{
+					return i;
+				}
+			}
+			return length;
+		}
+
+		// Git hash: at least five hex digits, as many as there are.
+		int hashEnd = 1;
+		while (hashEnd < length && isHexDigit(middle.charAt(hashEnd))) hashEnd++;
+		if (hashEnd >= 6) {
+			if (hashEnd == length) return length;
+			if (middle.charAt(hashEnd) == '-' && isClassifier(middle, hashEnd + 1,
+				classifier))
+			{
+				return hashEnd;
+			}
+		}
+
+		// No version at all.
+		return isClassifier(middle, 1, classifier) ? 0 : -1;
+	}
+
+	private static boolean isClassifier(final String s, final int offset,
+		final String classifier)
+	{
+		if (offset >= s.length()) return false;
+		final String candidate = s.substring(offset);
+		return candidate.equals(classifier) || //
+			KnownPlatforms.isNativeClassifier(candidate);
+	}
+
+	private static boolean isDigit(final char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isHexDigit(final char c) {
+		return isDigit(c) || c >= 'a' && c <= 'f';
+	}
+}
@@ -0,0 +1,186 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.util.regex.Pattern;
+
+/**
+ * A precompiled GAV pattern, as described in
+ * {@link SubdirectoryPattern#patterns}.
+ * <p>
+ * The pattern is split into its components once. Components which are a lone
+ * wildcard match anything, components without any special characters are
+ * compared literally, and only the remaining components are compiled into a
+ * regular expression.
+ * </p>
+ */
+final class ArtifactPattern {
+
+	private final String pattern;
+
+	private final Component groupId, artifactId, version, classifier, type;
+
+	private ArtifactPattern(final String pattern, final String g,
+		final String a, final String v, final String c, final String p)
+	{
+		this.pattern = pattern;
+		groupId = Component.compile(g);
+		artifactId = Component.compile(a);
+		version = Component.compile(v);
+		classifier = Component.compile(c);
+		type = Component.compile(p);
+	}
+
+	/**
+	 * Compiles the given pattern string.
+	 *
+	 * @throws IllegalArgumentException if the pattern has more than five
+	 *           components
+	 */
+	static ArtifactPattern compile(final String pattern) {
+		final String[] tokens = pattern.split(":");
+		switch (tokens.length) {
+			case 1:
+				return new ArtifactPattern(pattern, "*", "*", "*", tokens[0], "*");
+			case 2:
+				return new ArtifactPattern(pattern, tokens[0], tokens[1], "*", "*",
+					"*");
+			case 3:
+				return new ArtifactPattern(pattern, tokens[0], tokens[1], tokens[2],
+					"*", "*");
+			case 4:
+				return new ArtifactPattern(pattern, tokens[0], tokens[1], tokens[2],
+					tokens[3], "*");
+			case 5:
+				return new ArtifactPattern(pattern, tokens[0], tokens[1], tokens[2],
+					tokens[3], tokens[4]);
+			default:
+				throw new IllegalArgumentException(
+					"Invalid artifact pattern: " + pattern);
+		}
+	}
+
+	/** Returns true iff this pattern matches the given coordinates. */
+	boolean matches(final String g, final String a, final String v,
+		final String c, final String p)
+	{
+		return groupId.matches(g) && artifactId.matches(a) && //
+			version.matches(v) && classifier.matches(c) && type.matches(p);
+	}
+
+	/**
+	 * Gets the classifier matched by this pattern, if this pattern matches
+	 * exactly the artifacts having one specific classifier.
+	 *
+	 * @return The classifier, or null if this pattern constrains other
+	 *         components, too, or uses wildcards in the classifier.
+	 */
+	String literalClassifier() {
+		if (!groupId.any || !artifactId.any || !version.any || !type.any) {
+			return null;
+		}
+		return classifier.literal;
+	}
+
+	/**
+	 * Gets the groupId and artifactId matched by this pattern, if this pattern
+	 * matches whole artifacts by these two components alone, each of them
+	 * literally or by a lone wildcard. Such patterns can be expressed as
+	 * dependency exclusions. Dots are taken literally here, so the exclusion
+	 * never matches more than the pattern.
+	 *
+	 * @return The groupId and artifactId (possibly {@code *}), or null if this
+	 *         pattern constrains other components, too, or uses partial
+	 *         wildcards.
+	 */
+	String[] literalGroupAndArtifact() {
+		if (!version.any || !classifier.any || !type.any) return null;
+		final String g = groupId.any ? "*" : groupId.plain();
+		final String a = artifactId.any ? "*" : artifactId.plain();
+		return g == null || a == null ? null : new String[] { g, a };
+	}
+
+	@Override
+	public String toString() {
+		return pattern;
+	}
+
+	/** One colon-separated component of a pattern. */
+	private static final class Component {
+
+		private static final Component ANY = new Component(true, null, null);
+
+		private static final String SPECIAL = "\\.[]{}()*+?^$|";
+
+		private final boolean any;
+		private final String literal;
+		private final Pattern regex;
+
+		private Component(final boolean any, final String literal,
+			final Pattern regex)
+		{
+			this.any = any;
+			this.literal = literal;
+			this.regex = regex;
+		}
+
+		private static Component compile(final String token) {
+			if (token.equals("*")) return ANY;
+			for (int i = 0; i < token.length(); i++) {
+				if (SPECIAL.indexOf(token.charAt(i)) >= 0) {
+					return new Component(false, null, Pattern.compile(token.replaceAll(
+						"\\*", ".*")));
+				}
+			}
+			return new Component(false, token, null);
+		}
+
+		/**
+		 * Gets the string matched by this component, with dots taken literally,
+		 * or null if it contains other special characters.
+		 */
+		private String plain() {
+			if (literal != null || regex == null) return literal;
+			final String token = regex.pattern();
+			for (int i = 0; i < token.length(); i++) {
+				final char c = token.charAt(i);
+				if (c != '.' && SPECIAL.indexOf(c) >= 0) return null;
+			}
+			return token;
+		}
+
+		private boolean matches(final String string) {
+			if (any) return true;
+			final String s = string == null ? "" : string;
+			if (literal != null) return literal.equals(s);
+			return regex.matcher(s).matches();
+		}
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches build output files, e.g. the jars in the {@code target/} directories
+ * of the modules of a reactor, for changes.
+ * <p>
+ * The parent directories of the files are watched with a {@link WatchService};
+ * events merely trigger comparing the files' size and modification time with
+ * what was seen before, so that only actual changes are reported. Directories
+ * which do not exist (yet), or vanish, e.g. during {@code mvn clean}, are
+ * registered again as soon as they exist.
+ * </p>
+ */
+final class BuildOutputWatcher implements AutoCloseable {
+
+	/** How often to look for directories which need to be registered. */
+	private static final long POLL_MILLIS = 1000;
+
+	private final WatchService watchService;
+
+	private final Map<Path, Set<Path>> files = new HashMap<>();
+	private final Map<Path, WatchKey> keys = new HashMap<>();
+	private final Map<Path, String> stamps = new HashMap<>();
+
+	BuildOutputWatcher(final Collection<Path> watched) throws IOException {
+		watchService = FileSystems.getDefault().newWatchService();
+		for (final Path file : watched) {
+			final Path normalized = file.toAbsolutePath().normalize();
+			files.computeIfAbsent(normalized.getParent(), d -> new LinkedHashSet<>())
+				.add(normalized);
+			stamps.put(normalized, stamp(normalized));
+		}
+		register();
+	}
+
+	/**
+	 * Waits until at least one of the watched files changed, and then until
+	 * they stopped changing for the given time, as writing a jar takes a while.
+	 *
+	 * @return the changed files
+	 */
+	Set<Path> await(final long quietMillis) throws IOException,
+		InterruptedException
+	{
+		final Set<Path> changed = new LinkedHashSet<>();
+		while (true) {
+			final WatchKey key = watchService.poll(changed.isEmpty() ? POLL_MILLIS
+				: quietMillis, TimeUnit.MILLISECONDS);
+			if (key == null) {
+				if (!changed.isEmpty()) {
+					// NB: Keep only the files which are still there.
+					changed.removeIf(file -> !Files.isRegularFile(file));
+					if (!changed.isEmpty()) return changed;
+				}
+				// NB: Directories might have been created in the meantime.
+				changed.addAll(register());
+				continue;
+			}
+			key.pollEvents();
+			final Path directory = (Path) key.watchable();
+			if (!key.reset()) keys.remove(directory);
+			changed.addAll(changes(directory));
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		watchService.close();
+	}
+
+	/**
+	 * Registers the directories which are not registered yet.
+	 *
+	 * @return the files which changed in directories registered anew
+	 */
+	private Set<Path> register() throws IOException {
+		final Set<Path> changed = new LinkedHashSet<>();
+		for (final Path directory : files.keySet()) {
+			final WatchKey key = keys.get(directory);
+			if (key != null && key.isValid() || !Files.isDirectory(directory)) {
+				continue;
+			}
+			keys.put(directory, directory.register(watchService, ENTRY_CREATE,
+				ENTRY_MODIFY));
+			changed.addAll(changes(directory));
+		}
+		return changed;
+	}
+
+	private Set<Path> changes(final Path directory) {
+		final Set<Path> changed = new LinkedHashSet<>();
+		for (final Path file : files.getOrDefault(directory,
+			Collections.<Path> emptySet())) {
+			final String stamp = stamp(file);
+			if (!stamp.equals(stamps.put(file, stamp)) && Files.isRegularFile(
+				file))
+			{
+				changed.add(file);
+			}
+		}
+		return changed;
+	}
+
+	private static String stamp(final Path file) {
+		return Files.isRegularFile(file) ? InstallManifest.stamp(file.toFile())
+			: "";
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utility methods for SHA-1 checksums of artifact files.
+ */
+final class Checksums {
+
+	/**
+	 * How much older than its artifact a {@code .sha1} file may be before it is
+	 * considered stale (e.g. because the artifact was later overwritten by a
+	 * local {@code mvn install}).
+	 */
+	private static final long SIDECAR_TOLERANCE = 60 * 1000;
+
+	private Checksums() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Reads the SHA-1 checksum which Maven stored next to the given artifact in
+	 * the local repository.
+	 *
+	 * @return The checksum as lower-case hex string, or null if there is no
+	 *         usable {@code .sha1} file.
+	 */
+	static String sidecarSha1(final File file) {
+		final File sidecar = new File(file.getPath() + ".sha1");
+		if (!sidecar.isFile() || //
+			sidecar.lastModified() < file.lastModified() - SIDECAR_TOLERANCE)
+		{
+			return null;
+		}
+		try {
+			final String content = new String(Files.readAllBytes(sidecar.toPath()),
+				StandardCharsets.US_ASCII).trim();
+			// NB: Some tools append the file name after the checksum.
+			final int space = content.indexOf(' ');
+			final String sha1 = (space < 0 ? content : content.substring(0, space))
+				.toLowerCase();
+			return isSha1(sha1) ? sha1 : null;
+		}
+		catch (final IOException e) {
+			return null;
+		}
+	}
+
+	/** Computes the SHA-1 checksum of the given file. */
+	static String sha1(final File file) throws IOException {
+		final MessageDigest digest = newSha1();
+		final byte[] buffer = new byte[65536];
+		try (final InputStream in = Files.newInputStream(file.toPath())) {
+			for (;;) {
+				final int count = in.read(buffer);
+				if (count < 0) break;
+				digest.update(buffer, 0, count);
+			}
+		}
+		return hex(digest.digest());
+	}
+
+	/** Creates a new SHA-1 message digest. */
+	static MessageDigest newSha1() {
+		try {
+			return MessageDigest.getInstance("SHA-1");
+		}
+		catch (final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean isSha1(final String s) {
+		if (s.length() != 40) return false;
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return false;
+		}
+		return true;
+	}
+
+	/** Formats the given digest as lower-case hex string. */
+	static String hex(final byte[] bytes) {
+		final StringBuilder sb = new StringBuilder(2 * bytes.length);
+		for (final byte b : bytes) {
+			sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+			sb.append(Character.forDigit(b & 0xf, 16));
+		}
+		return sb.toString();
+	}
+}
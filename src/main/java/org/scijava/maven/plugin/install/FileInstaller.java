@@ -0,0 +1,240 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileStore;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.scijava.maven.plugin.install.AbstractInstallMojo.InstallMode;
+
+/**
+ * Places artifact files into an application directory, using the cheapest
+ * available {@link InstallMode}.
+ * <p>
+ * If the requested mode is not available, the next cheaper one is tried, in
+ * the order symlink, hardlink, reflink, copy. Copies are made with
+ * {@link FileChannel#transferTo}, letting the kernel move the bytes. Once a
+ * mode failed for a file store, it is not tried again for that file store.
+ * </p>
+ * <p>
+ * An existing target is always deleted first: it might be a link to a file in
+ * the local repository, which must never be written through. A directory is
+ * only deleted, recursively, if it was installed before; any other directory
+ * is left alone, and the installation fails.
+ * </p>
+ * <p>
+ * Directories, i.e. build output directories of reactor modules, are always
+ * symlinked: a copy would be outdated by the next compilation.
+ * </p>
+ */
+final class FileInstaller {
+
+	private final InstallMode mode;
+
+	private final Map<FileStore, Set<InstallMode>> unavailable =
+		new ConcurrentHashMap<>();
+
+	FileInstaller(final InstallMode mode) {
+		this.mode = mode == null ? InstallMode.copy : mode;
+	}
+
+	/**
+	 * Installs the source file as the target file.
+	 *
+	 * @param installed whether the target, if it exists, was installed before,
+	 *          and hence may be deleted even if it is a directory
+	 * @return the mode which was actually used
+	 */
+	InstallMode install(final Path source, final Path target,
+		final boolean installed) throws IOException
+	{
+		final Path directory = target.toAbsolutePath().getParent();
+		Files.createDirectories(directory);
+		if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+			if (!installed) {
+				throw new IOException(target + " is a directory which was not " +
+					"installed by this plugin; remove it to install " + source
+						.getFileName());
+			}
+			deleteRecursively(target);
+		}
+		else Files.deleteIfExists(target);
+		if (Files.isDirectory(source)) {
+			Files.createSymbolicLink(target, source.toAbsolutePath());
+			return InstallMode.symlink;
+		}
+
+		final FileStore store = Files.getFileStore(directory);
+		switch (mode) {
+			case symlink:
+				if (attempt(store, InstallMode.symlink, target, () -> Files
+					.createSymbolicLink(target, source.toAbsolutePath())))
+				{
+					return InstallMode.symlink;
+				}
+				//$FALL-THROUGH$
+			case hardlink:
+				if (attempt(store, InstallMode.hardlink, target, () -> Files
+					.createLink(target, source)))
+				{
+					return InstallMode.hardlink;
+				}
+				//$FALL-THROUGH$
+			case reflink:
+				if (attempt(store, InstallMode.reflink, target, () -> reflink(
+					source, target)))
+				{
+					return InstallMode.reflink;
+				}
+				//$FALL-THROUGH$
+			default:
+				transfer(source, target);
+				return InstallMode.copy;
+		}
+	}
+
+	// -- Helper methods --
+
+	private interface Attempt {
+
+		void run() throws IOException;
+	}
+
+	private boolean attempt(final FileStore store, final InstallMode candidate,
+		final Path target, final Attempt attempt) throws IOException
+	{
+		final Set<InstallMode> modes = unavailable.computeIfAbsent(store,
+			s -> ConcurrentHashMap.newKeySet());
+		if (modes.contains(candidate)) return false;
+		try {
+			attempt.run();
+			return true;
+		}
+		catch (final IOException | UnsupportedOperationException e) {
+			modes.add(candidate);
+			// NB: Do not leave a partial file behind for the next mode.
+			Files.deleteIfExists(target);
+			return false;
+		}
+	}
+
+	/**
+	 * Clones the source file by means of {@code cp}, which knows how to ask the
+	 * file system for a copy-on-write clone (Btrfs, XFS, APFS, ...).
+	 */
+	private static void reflink(final Path source, final Path target)
+		throws IOException
+	{
+		final String os = System.getProperty("os.name", "").toLowerCase(
+			Locale.ENGLISH);
+		final List<String> command;
+		if (os.contains("linux")) {
+			command = Arrays.asList("cp", "--reflink=always", source.toString(),
+				target.toString());
+		}
+		else if (os.contains("mac")) {
+			command = Arrays.asList("cp", "-c", source.toString(), target
+				.toString());
+		}
+		else throw new UnsupportedOperationException("reflink");
+
+		final Process process = new ProcessBuilder(command) //
+			.redirectErrorStream(true) //
+			.redirectOutput(Redirect.appendTo(new File("/dev/null"))) //
+			.start();
+		try {
+			if (process.waitFor() != 0) {
+				throw new IOException("Could not clone " + source);
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			process.destroy();
+			throw new IOException("Interrupted while cloning " + source, e);
+		}
+	}
+
+	/** Deletes the given directory, without following any links inside. */
+	private static void deleteRecursively(final Path directory)
+		throws IOException
+	{
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(final Path file,
+				final BasicFileAttributes attrs) throws IOException
+			{
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(final Path dir,
+				final IOException exc) throws IOException
+			{
+				if (exc != null) throw exc;
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void transfer(final Path source, final Path target)
+		throws IOException
+	{
+		try (final FileChannel in = FileChannel.open(source,
+			StandardOpenOption.READ);
+				final FileChannel out = FileChannel.open(target,
+					StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+		{
+			final long size = in.size();
+			long position = 0;
+			while (position < size) {
+				position += in.transferTo(position, size - position, out);
+			}
+		}
+	}
+}
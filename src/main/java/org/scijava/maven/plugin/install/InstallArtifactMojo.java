@@ -31,10 +31,13 @@ package org.scijava.maven.plugin.install;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -50,16 +53,12 @@ import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
-import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
-import org.apache.maven.project.ProjectBuildingResult;
-import org.apache.maven.shared.artifact.filter.resolve.TransformableFilter;
-import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.artifact.resolve.ArtifactResult;
 import org.apache.maven.shared.dependencies.DefaultDependableCoordinate;
 import org.apache.maven.shared.dependencies.DependableCoordinate;
-import org.apache.maven.shared.dependencies.resolve.DependencyResolver;
 import org.apache.maven.shared.dependencies.resolve.DependencyResolverException;
 import org.codehaus.plexus.util.StringUtils;
 
@@ -83,12 +82,6 @@ import org.codehaus.plexus.util.StringUtils;
 @Mojo(name = "install-artifact", requiresProject=false)
 public class InstallArtifactMojo extends AbstractInstallMojo {
 
-	/**
-	 * Used to look up Artifacts in the remote repository.
-	 */
-	@Component
-	private ArtifactResolver artifactResolver;
-
 	@Component
 	private ArtifactRepositoryFactory artifactRepositoryFactory;
 	
@@ -150,16 +143,57 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 	private String packaging = "jar";
 
 	/**
-	 * A string of the form groupId:artifactId:version[:packaging].
+	 * A string of the form groupId:artifactId:version[:packaging[:classifier]].
 	 */
 	@Parameter(property = "artifact")
 	private String artifact;
 
 	/**
-	 * The dependency resolver to.
+	 * Several artifacts to install in one go, each of the same form as
+	 * {@link #artifact}. On the command line, they are separated by commas.
+	 * <p>
+	 * All artifacts are resolved together and installed in a single pass, so
+	 * that shared dependencies are resolved and copied only once.
+	 * </p>
 	 */
-	@Component
-	private DependencyResolver dependencyResolver;
+	@Parameter(property = "artifacts")
+	private List<String> artifacts;
+
+	/**
+	 * A file listing artifacts to install, one per line, each of the same form
+	 * as {@link #artifact}. Empty lines and comments starting with {@code #} are
+	 * ignored. These artifacts are installed together with {@link #artifacts}.
+	 */
+	@Parameter(property = "artifactsFile")
+	private File artifactsFile;
+
+	/**
+	 * How often to check the remote repositories for updated metadata:
+	 * <code>always</code>, <code>daily</code>, <code>interval:minutes</code> or
+	 * <code>never</code>.
+	 * <p>
+	 * This applies to the repositories given by {@link #remoteRepositories} and
+	 * to the SciJava repository; the POM's repositories keep their own policies.
+	 * </p>
+	 */
+	@Parameter(property = UPDATE_POLICY_PROPERTY, defaultValue = ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS)
+	private String updatePolicy;
+
+	/**
+	 * What to do when a downloaded artifact's checksum does not match:
+	 * <code>fail</code>, <code>warn</code> or <code>ignore</code>.
+	 */
+	@Parameter(property = CHECKSUM_POLICY_PROPERTY, defaultValue = ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN)
+	private String checksumPolicy;
+
+	/**
+	 * If this option is set to <code>true</code>, whatever is in the local
+	 * repository is trusted: no repository, not even the POM's, is checked for
+	 * updates, and only missing artifacts are downloaded. Repeated
+	 * installations are thereby network-free.
+	 */
+	@Parameter(property = OFFLINE_FIRST_PROPERTY, defaultValue = "false")
+	private boolean offlineFirst;
 
 	/**
 	 * Whether to force overwriting files.
@@ -173,14 +207,6 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 	@Parameter(property = IGNORE_OPTIONAL_DEPENDENCIES_PROPERTY, defaultValue = "true")
 	private boolean ignoreOptionalDependencies;
 
-	/**
-	 * The coordinate use for resolving dependencies.
-	 */
-	private DefaultDependableCoordinate coordinate = new DefaultDependableCoordinate();
-
-	@Component
-	private ProjectBuilder mavenProjectBuilder;
-
 	@Override
 	public void execute() throws MojoExecutionException, MojoFailureException {
 		if (appDirectory == null) {
@@ -199,39 +225,35 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 					" directory location was specified; Installing in default location" );
 		}
 
-		ArtifactRepositoryPolicy always = new ArtifactRepositoryPolicy(true,
-			ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS,
-			ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN);
+		ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy(true,
+			offlineFirst ? ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER :
+				validateUpdatePolicy(updatePolicy),
+			validateChecksumPolicy(checksumPolicy));
 
 		List<ArtifactRepository> repoList = new ArrayList<>();
 
 		// Use repositories provided in POM (if available)
 		if (pomRemoteRepositories != null) {
-			repoList.addAll(pomRemoteRepositories);
+			for (ArtifactRepository repo : pomRemoteRepositories) {
+				repoList.add(offlineFirst ? withPolicy(repo, policy) : repo);
+			}
 		}
 
 		// Add remote repositories provided as parameter
 		if (remoteRepositories != null) {
 			String[] repos = remoteRepositories.split(",");
 			for (String repo : repos) {
-				repoList.add(parseRepository(repo, always));
+				repoList.add(parseRepository(repo, policy));
 			}
 		}
 
 		// Add ImageJ remote repository
-		repoList.add(parseRepository("https://maven.scijava.org/content/groups/public", always));
+		repoList.add(parseRepository("https://maven.scijava.org/content/groups/public", policy));
 
 		/*
-		 * Determine GAV to download
+		 * Determine GAVs to download
 		 */
-		if (artifactId == null && artifact == null) {
-			throw new MojoFailureException(
-				"No artifact specified (e.g. by -Dartifact=net.imagej:ij:1.48p)");
-		}
-		if (artifact != null) {
-			String[] tokens = artifact.split(":");
-			parseArtifact(tokens);
-		}
+		final List<DependableCoordinate> coordinates = getCoordinates();
 
 		/*
 		 * Install artifact
@@ -241,42 +263,70 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 				new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
 			buildingRequest.setLocalRepository(localRepository);
 			buildingRequest.setRemoteRepositories(repoList);
-
-			final TransformableFilter scopeAndNotOptionalFilter =
-					makeTransformableFilterDefaultExclusions(ignoreOptionalDependencies);
-
-			Iterable<ArtifactResult> resolveDependencies = dependencyResolver
-				.resolveDependencies(buildingRequest, coordinate, scopeAndNotOptionalFilter);
-			for (ArtifactResult result : resolveDependencies) {
-				try {
-					if ( isSameGAV(coordinate, result.getArtifact()) )
+			prepareRequest(buildingRequest);
+
+			final Iterable<ArtifactResult> resolveDependencies;
+			if (ignoreDependencies) {
+				// NB: Do not resolve dependencies which would be ignored anyway.
+				final List<ArtifactResult> results = new ArrayList<>();
+				for (final DependableCoordinate coordinate : coordinates) {
+					results.add(resolveArtifact(buildingRequest, coordinate));
+				}
+				resolveDependencies = results;
+			}
+			else {
+				// NB: All artifacts are resolved together, as one graph.
+				resolveDependencies = resolveDependencies(buildingRequest, coordinates,
+					ignoreOptionalDependencies);
+			}
+			final InstallPlan plan = new InstallPlan();
+			try {
+				for (ArtifactResult result : resolveDependencies) {
+					if (isInstalled(result.getArtifact(), appDir)) continue;
+					if ( isRequested(coordinates, result.getArtifact()) )
 					{
-						installArtifact( result.getArtifact(), appDir, appSubdirectory, false, deleteOtherVersionsPolicy );
+						planInstall( plan, result.getArtifact(), appDir, appSubdirectory, false, deleteOtherVersionsPolicy );
 						continue;
 					}
 					if (!ignoreDependencies) {
-						ProjectBuildingResult build = mavenProjectBuilder.build(result.getArtifact(), session.getProjectBuildingRequest());
-						Properties properties = build.getProject().getProperties();
-						String subdir = (String) properties.get( APP_SUBDIRECTORY_PROPERTY );
-
-						installArtifact(result.getArtifact(), appDir, subdir, false, deleteOtherVersionsPolicy);
+						String subdir;
+						try {
+							subdir = getAppSubdirectoryProperty(result.getArtifact());
+						}
+						catch ( ProjectBuildingException e )
+						{
+							throw new MojoExecutionException( "Couldn't determine " +
+									APP_SUBDIRECTORY_PROPERTY + " for " + result.getArtifact(), e );
+						}
+
+						planInstall(plan, result.getArtifact(), appDir, subdir, false, deleteOtherVersionsPolicy);
 					}
 				}
-				catch (IOException e) {
-					throw new MojoExecutionException("Couldn't download artifact " +
-						artifact + ": " + e.getMessage(), e);
-				}
-				catch ( ProjectBuildingException e )
-				{
-					throw new MojoExecutionException( "Couldn't determine " +
-							APP_SUBDIRECTORY_PROPERTY + " for " + result.getArtifact(), e );
-				}
+				planSync(plan);
+				applyPlan(plan);
+			}
+			catch (IOException e) {
+				throw new MojoExecutionException(e.getMessage(), e);
 			}
 		}
 		catch (DependencyResolverException e) {
-			throw new MojoExecutionException(
-				"Couldn't resolve dependencies for artifact: " + e.getMessage(), e);
+			throw resolutionFailure("Couldn't resolve dependencies for artifact", e);
+		}
+		catch (ArtifactResolverException e) {
+			throw resolutionFailure("Couldn't resolve artifact", e);
+		}
+	}
+
+	/**
+	 * Checks if an {@link Artifact} is one of the requested ones.
+	 */
+	private boolean isRequested(final List<DependableCoordinate> coordinates,
+		final Artifact artifactToCheck)
+	{
+		for (final DependableCoordinate requested : coordinates) {
+			if (isSameGAV(requested, artifactToCheck)) return true;
 		}
+		return false;
 	}
 
 	/**
@@ -296,30 +346,85 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 		return same;
 	}
 
+	/**
+	 * Collects the coordinates of the artifacts to install, from
+	 * {@link #artifact}, {@link #artifacts} and {@link #artifactsFile}, or else
+	 * from {@link #groupId}, {@link #artifactId} and {@link #version}.
+	 * Duplicates are dropped.
+	 *
+	 * @throws MojoFailureException if no or invalid artifacts were specified
+	 */
+	private List<DependableCoordinate> getCoordinates()
+		throws MojoFailureException
+	{
+		final Set<String> specs = new LinkedHashSet<>();
+		if (artifact != null) specs.add(artifact.trim());
+		if (artifacts != null) {
+			for (final String spec : artifacts) {
+				if (!StringUtils.isBlank(spec)) specs.add(spec.trim());
+			}
+		}
+		if (artifactsFile != null) {
+			try {
+				for (final String line : Files.readAllLines(artifactsFile.toPath(),
+					StandardCharsets.UTF_8))
+				{
+					final int hash = line.indexOf('#');
+					final String spec = (hash < 0 ? line : line.substring(0, hash))
+						.trim();
+					if (!spec.isEmpty()) specs.add(spec);
+				}
+			}
+			catch (IOException e) {
+				throw new MojoFailureException("Could not read " + artifactsFile +
+					": " + e.getMessage());
+			}
+		}
+
+		final List<DependableCoordinate> coordinates = new ArrayList<>();
+		for (final String spec : specs) {
+			coordinates.add(parseArtifact(spec));
+		}
+		if (coordinates.isEmpty() && artifactId != null) {
+			final DefaultDependableCoordinate coordinate =
+				new DefaultDependableCoordinate();
+			coordinate.setGroupId(groupId);
+			coordinate.setArtifactId(artifactId);
+			coordinate.setVersion(version);
+			coordinate.setType(packaging);
+			coordinates.add(coordinate);
+		}
+		if (coordinates.isEmpty()) {
+			throw new MojoFailureException(
+				"No artifact specified (e.g. by -Dartifact=net.imagej:ij:1.48p)");
+		}
+		return coordinates;
+	}
+
 	/**
 	 * Parses an artifact string of form
-	 * {@code groupId:artifactId:version[:packaging]}.
+	 * {@code groupId:artifactId:version[:packaging[:classifier]]}.
 	 * 
-	 * @param tokens
+	 * @param spec the artifact string
 	 * @throws MojoFailureException
 	 */
-	private void parseArtifact(final String[] tokens) throws MojoFailureException {
-		if (tokens.length != 3) {
+	private DependableCoordinate parseArtifact(final String spec)
+		throws MojoFailureException
+	{
+		final String[] tokens = spec.split(":");
+		if (tokens.length < 3 || tokens.length > 5) {
 			throw new MojoFailureException(
-				"Invalid artifact, you must specify groupId:artifactId:version " +
-					artifact);
-		}
-		groupId = tokens[0];
-		artifactId = tokens[1];
-		version = tokens[2];
-
-		coordinate.setGroupId(groupId);
-		coordinate.setArtifactId(artifactId);
-		coordinate.setVersion(version);
-
-		if (tokens.length == 4) {
-			coordinate.setType(tokens[3]);
+				"Invalid artifact, you must specify " +
+					"groupId:artifactId:version[:packaging[:classifier]] " + spec);
 		}
+		final DefaultDependableCoordinate coordinate =
+			new DefaultDependableCoordinate();
+		coordinate.setGroupId(tokens[0]);
+		coordinate.setArtifactId(tokens[1]);
+		coordinate.setVersion(tokens[2]);
+		coordinate.setType(tokens.length > 3 ? tokens[3] : packaging);
+		if (tokens.length > 4) coordinate.setClassifier(tokens[4]);
+		return coordinate;
 	}
 
 	/**
@@ -356,6 +461,78 @@ public class InstallArtifactMojo extends AbstractInstallMojo {
 		return new MavenArtifactRepository(id, url, layout, policy, policy);
 	}
 
+	/**
+	 * Copies a repository, with a different update and checksum policy. Whether
+	 * releases and snapshots are enabled is kept as it is.
+	 *
+	 * @param repository the {@link ArtifactRepository} to copy; it is left alone
+	 * @param policy the {@link ArtifactRepositoryPolicy} whose update and
+	 *          checksum policy to use for the copy
+	 * @return an {@link ArtifactRepository} instance
+	 */
+	static ArtifactRepository withPolicy(
+		final ArtifactRepository repository,
+		final ArtifactRepositoryPolicy policy)
+	{
+		final ArtifactRepository copy = new MavenArtifactRepository(repository
+			.getId(), repository.getUrl(), repository.getLayout(), withPolicy(
+				repository.getSnapshots(), policy), withPolicy(repository
+					.getReleases(), policy));
+		copy.setAuthentication(repository.getAuthentication());
+		copy.setProxy(repository.getProxy());
+		return copy;
+	}
+
+	private static ArtifactRepositoryPolicy withPolicy(
+		final ArtifactRepositoryPolicy original,
+		final ArtifactRepositoryPolicy policy)
+	{
+		return new ArtifactRepositoryPolicy(original == null || original
+			.isEnabled(), policy.getUpdatePolicy(), policy.getChecksumPolicy());
+	}
+
+	/**
+	 * Validates an update policy: always, daily, interval:minutes or never.
+	 *
+	 * @param policy the update policy to validate
+	 * @return the policy
+	 * @throws MojoFailureException if the policy is invalid
+	 */
+	static String validateUpdatePolicy(final String policy)
+		throws MojoFailureException
+	{
+		if (ArtifactRepositoryPolicy.UPDATE_POLICY_ALWAYS.equals(policy) ||
+			ArtifactRepositoryPolicy.UPDATE_POLICY_DAILY.equals(policy) ||
+			ArtifactRepositoryPolicy.UPDATE_POLICY_NEVER.equals(policy) ||
+			policy != null && policy.matches(
+				ArtifactRepositoryPolicy.UPDATE_POLICY_INTERVAL + ":\\d+"))
+		{
+			return policy;
+		}
+		throw new MojoFailureException("Invalid update policy: " + policy +
+			" (expected always, daily, interval:minutes or never)");
+	}
+
+	/**
+	 * Validates a checksum policy: fail, warn or ignore.
+	 *
+	 * @param policy the checksum policy to validate
+	 * @return the policy
+	 * @throws MojoFailureException if the policy is invalid
+	 */
+	static String validateChecksumPolicy(final String policy)
+		throws MojoFailureException
+	{
+		if (ArtifactRepositoryPolicy.CHECKSUM_POLICY_FAIL.equals(policy) ||
+			ArtifactRepositoryPolicy.CHECKSUM_POLICY_WARN.equals(policy) ||
+			ArtifactRepositoryPolicy.CHECKSUM_POLICY_IGNORE.equals(policy))
+		{
+			return policy;
+		}
+		throw new MojoFailureException("Invalid checksum policy: " + policy +
+			" (expected fail, warn or ignore)");
+	}
+
 	/**
 	 * Determines the layout of a provided repository.
 	 *
@@ -0,0 +1,191 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Records which artifacts were installed into a SciJava application
+ * directory.
+ * <p>
+ * The manifest is stored in {@code .scijava-install/manifest.properties}. For
+ * each installed file (keyed by its path relative to the application
+ * directory, which reflects the routing decision), it records the artifact's
+ * id, the size and modification time of the artifact file it was installed
+ * from, its SHA-1 checksum (if known) and the size and modification time of
+ * the installed file. That is enough to tell whether an artifact is still
+ * installed as recorded without routing it or reading any file contents.
+ * </p>
+ */
+final class InstallManifest {
+
+	/** Placeholder for a checksum which was not computed. */
+	static final String UNKNOWN = "-";
+
+	private final File appDir;
+	private final Path appPath;
+	private final PersistentCache entries;
+
+	/** Maps artifact ids to the relative paths they were installed to. */
+	private Map<String, String> paths;
+
+	InstallManifest(final File appDir) {
+		this.appDir = appDir.getAbsoluteFile();
+		appPath = this.appDir.toPath().normalize();
+		entries = new PersistentCache(new File(this.appDir,
+			".scijava-install/manifest.properties"),
+			"Installed files (artifact|source size:mtime:|sha1|target size:mtime:)");
+	}
+
+	/** A record of one installed file. */
+	static final class Entry {
+
+		final String id;
+		final String sourceStamp;
+		final String sha1;
+		final String targetStamp;
+
+		Entry(final String id, final String sourceStamp,
+			final String sha1, final String targetStamp)
+		{
+			this.id = id;
+			this.sourceStamp = sourceStamp;
+			this.sha1 = sha1 == null ? UNKNOWN : sha1;
+			this.targetStamp = targetStamp;
+		}
+
+		private static Entry parse(final String value) {
+			final String[] tokens = value.split("\\|");
+			if (tokens.length != 4) return null;
+			return new Entry(tokens[0], tokens[1], tokens[2], tokens[3]);
+		}
+
+		@Override
+		public String toString() {
+			return id + "|" + sourceStamp + "|" + sha1 + "|" + targetStamp;
+		}
+	}
+
+	/**
+	 * Gets the entry for the given installed file, if it is still unchanged
+	 * since it was recorded.
+	 */
+	synchronized Entry get(final File target) {
+		final Entry entry = parse(entries.get(relativePath(target.toPath())));
+		if (entry == null || !entry.targetStamp.equals(stamp(target))) return null;
+		return entry;
+	}
+
+	/**
+	 * Records that the given artifact was installed (or found to be installed
+	 * already) to the given file.
+	 */
+	synchronized void put(final Artifact artifact, final File target,
+		final String sha1)
+	{
+		final String path = relativePath(target.toPath());
+		paths();
+		final String previous = paths.put(artifact.getId(), path);
+		if (previous != null && !previous.equals(path)) entries.remove(previous);
+		entries.put(path, new Entry(artifact.getId(), stamp(artifact.getFile()),
+			sha1, stamp(target)).toString());
+	}
+
+	/** Whether anything was recorded as installed to the given file. */
+	synchronized boolean contains(final Path target) {
+		return parse(entries.get(relativePath(target))) != null;
+	}
+
+	/** Gets the file the given artifact was recorded to be installed to. */
+	synchronized File installedFile(final Artifact artifact) {
+		final String path = paths().get(artifact.getId());
+		return path == null ? null : new File(appDir, path);
+	}
+
+	/** Records that the given file was deleted. */
+	synchronized void remove(final Path target) {
+		final String path = relativePath(target);
+		final Entry entry = parse(entries.get(path));
+		if (entry == null) return;
+		entries.remove(path);
+		paths().remove(entry.id, path);
+	}
+
+	/**
+	 * Determines whether the given artifact is still installed as recorded:
+	 * neither the artifact file nor the installed file changed since.
+	 */
+	synchronized boolean isInstalled(final Artifact artifact) {
+		final File source = artifact.getFile();
+		if (source == null || !source.isFile()) return false;
+		final String path = paths().get(artifact.getId());
+		if (path == null) return false;
+		final Entry entry = get(new File(appDir, path));
+		return entry != null && entry.id.equals(artifact.getId()) && //
+			entry.sourceStamp.equals(stamp(source));
+	}
+
+	/** Gets the path of the given file, relative to the application directory. */
+	String relativePath(final Path path) {
+		return appPath.relativize(path.toAbsolutePath().normalize()).toString()
+			.replace(File.separatorChar, '/');
+	}
+
+	/** Writes the manifest back to disk, if it changed. */
+	void save() throws IOException {
+		entries.save();
+	}
+
+	/** Gets a stamp identifying the current size and modification time. */
+	static String stamp(final File file) {
+		return file.length() + ":" + file.lastModified() + ":";
+	}
+
+	private Map<String, String> paths() {
+		if (paths == null) {
+			paths = new HashMap<>();
+			for (final Map.Entry<String, String> e : entries.entries().entrySet()) {
+				final Entry entry = Entry.parse(e.getValue());
+				if (entry != null) paths.put(entry.id, e.getKey());
+			}
+		}
+		return paths;
+	}
+
+	private static Entry parse(final String value) {
+		return value == null ? null : Entry.parse(value);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded worker pool through which artifacts are installed.
+ * <p>
+ * Tasks may run concurrently, in any order. This is used for the copies of an
+ * {@link InstallPlan}, which has already resolved all dependencies between
+ * them: every planned copy has a distinct target.
+ * </p>
+ * <p>
+ * With a single thread, tasks are executed immediately in the calling thread.
+ * </p>
+ */
+final class InstallPipeline implements AutoCloseable {
+
+	/** A unit of installation work. */
+	interface Task {
+
+		void run() throws IOException;
+	}
+
+	private final ExecutorService executor;
+
+	private final List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+	InstallPipeline(final int threads) {
+		executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+	}
+
+	/** Submits a task. */
+	void submit(final Task task) throws IOException {
+		if (executor == null) {
+			task.run();
+			return;
+		}
+		pending.add(CompletableFuture.runAsync(() -> run(task), executor));
+	}
+
+	/**
+	 * Waits for all submitted tasks to finish.
+	 *
+	 * @throws IOException the first failure of any of the submitted tasks
+	 */
+	void await() throws IOException {
+		try {
+			for (final CompletableFuture<Void> future : pending) {
+				future.join();
+			}
+		}
+		catch (final CompletionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof UncheckedIOException) {
+				throw ((UncheckedIOException) cause).getCause();
+			}
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IOException(cause);
+		}
+		finally {
+			pending.clear();
+		}
+	}
+
+	@Override
+	public void close() {
+		if (executor != null) executor.shutdownNow();
+	}
+
+	private static void run(final Task task) {
+		try {
+			task.run();
+		}
+		catch (final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * The file operations needed to install a set of artifacts into application
+ * directories.
+ * <p>
+ * A plan is computed for the whole resolved set before anything is touched
+ * on disk, so that it can be inspected (see {@code scijava.dryRun}) and then
+ * applied in an I/O-friendly order. Only the net operation per target path is
+ * kept: e.g. copying a file which a later artifact supersedes and deletes
+ * again results in just the deletion.
+ * </p>
+ */
+final class InstallPlan {
+
+	enum Action {
+			/**
+			 * The file is deleted, as another version of an artifact, or as it is
+			 * not needed anymore (see {@code scijava.sync}).
+			 */
+			delete,
+			/** The file is not needed anymore, and moved into the quarantine. */
+			quarantine,
+			/** The artifact is installed. */
+			copy,
+			/** The artifact is already installed. */
+			skip,
+			/** The artifact is not installed, as a newer version is present. */
+			superseded
+	}
+
+	/** A single operation, on a single target path. */
+	static final class Operation {
+
+		final Action action;
+
+		/**
+		 * The artifact to install, or {@code null} for deletions and quarantines.
+		 */
+		final Artifact artifact;
+
+		final File appDir;
+
+		final Path target;
+
+		private Operation(final Action action, final Artifact artifact,
+			final File appDir, final Path target)
+		{
+			this.action = action;
+			this.artifact = artifact;
+			this.appDir = appDir;
+			this.target = target;
+		}
+
+		@Override
+		public String toString() {
+			final Path root = appDir.toPath().toAbsolutePath();
+			final Path path = target.startsWith(root) ? root.relativize(target)
+				: target;
+			return String.format("%-10s %s", action, path.toString().replace(
+				File.separatorChar, '/'));
+		}
+	}
+
+	private final Map<Path, Operation> operations = new LinkedHashMap<>();
+
+	void delete(final File appDir, final Path target) {
+		add(new Operation(Action.delete, null, appDir, target));
+	}
+
+	void quarantine(final File appDir, final Path target) {
+		add(new Operation(Action.quarantine, null, appDir, target));
+	}
+
+	void copy(final Artifact artifact, final File appDir, final Path target) {
+		add(new Operation(Action.copy, artifact, appDir, target));
+	}
+
+	void skip(final Artifact artifact, final File appDir, final Path target) {
+		add(new Operation(Action.skip, artifact, appDir, target));
+	}
+
+	void superseded(final Artifact artifact, final File appDir,
+		final Path target)
+	{
+		add(new Operation(Action.superseded, artifact, appDir, target));
+	}
+
+	/** Gets all operations, in the order they were planned. */
+	Collection<Operation> operations() {
+		return operations.values();
+	}
+
+	/**
+	 * Gets the operations of the given kind. Operations on files are sorted by
+	 * target path, so that files in the same directory are handled together.
+	 */
+	List<Operation> operations(final Action action) {
+		final List<Operation> result = new ArrayList<>();
+		for (final Operation operation : operations.values()) {
+			if (operation.action == action) result.add(operation);
+		}
+		if (action != Action.skip && action != Action.superseded) {
+			result.sort(Comparator.comparing(operation -> operation.target));
+		}
+		return result;
+	}
+
+	/** Counts the planned operations, by kind. */
+	Map<Action, Integer> counts() {
+		final Map<Action, Integer> counts = new EnumMap<>(Action.class);
+		for (final Action action : Action.values()) counts.put(action, 0);
+		for (final Operation operation : operations.values()) {
+			counts.merge(operation.action, 1, Integer::sum);
+		}
+		return counts;
+	}
+
+	boolean isEmpty() {
+		return operations.isEmpty();
+	}
+
+	private void add(final Operation operation) {
+		final Path key = operation.target.toAbsolutePath().normalize();
+		// NB: The most recent operation on a path determines its outcome.
+		final Operation previous = operations.remove(key);
+		if (operation.action == Action.delete && previous != null &&
+			previous.action == Action.copy && !Files.exists(key))
+		{
+			// deleting a file which was only planned to be copied
+			return;
+		}
+		operations.put(key, operation);
+	}
+}
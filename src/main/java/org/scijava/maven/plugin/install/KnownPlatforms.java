@@ -31,9 +31,13 @@ package org.scijava.maven.plugin.install;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -67,6 +71,12 @@ public final class KnownPlatforms {
 		"x86_64"
 	);
 
+	private static final List<String> NATIVE_CLASSIFIERS = //
+		Collections.unmodifiableList(createNativeClassifiers());
+
+	private static final Set<String> NATIVE_CLASSIFIER_SET = //
+		Collections.unmodifiableSet(new HashSet<>(NATIVE_CLASSIFIERS));
+
 	public static String shortName(final String family, final String arch) {
 		if (isMacOS(family)) return "macosx";
 		if (isWindows(family) && isArch32(arch)) return "win32";
@@ -93,18 +103,69 @@ public final class KnownPlatforms {
 	 * </p>
 	 */
 	public static List<String> nativeClassifiers() {
-		final List<String> classifiers = new ArrayList<>();
-		for (final String family : FAMILIES) {
-			for (final String arch : ARCHES) {
-				classifiers.add(family + "-" + arch);
-				classifiers.add("native-" + family + "-" + arch);
-				classifiers.add("natives-" + family + "-" + arch);
-			}
-			classifiers.add(family);
-			classifiers.add("native-" + family);
-			classifiers.add("natives-" + family);
-		}
-		return classifiers;
+		return new ArrayList<>(NATIVE_CLASSIFIERS);
+	}
+
+	/**
+	 * Returns true iff the given string is one of the known native classifiers
+	 * enumerated by {@link #nativeClassifiers()}.
+	 * <p>
+	 * The classifiers are computed only once, so this is a plain hash lookup.
+	 * </p>
+	 */
+	public static boolean isNativeClassifier(final String classifier) {
+		return NATIVE_CLASSIFIER_SET.contains(classifier);
+	}
+
+	/**
+	 * Gets the short name of the platform a native classifier is meant for, as
+	 * returned by {@link #shortName(String, String)}.
+	 *
+	 * @return the short name, e.g. {@code linux64}, or null if the classifier is
+	 *         not a known native classifier, or its platform has no short name
+	 *         (e.g. {@code natives-linux-aarch64})
+	 */
+	public static String platform(final String classifier) {
+		if (!isNativeClassifier(classifier)) return null;
+		final String familyArch = stripNativePrefix(classifier);
+		final int dash = familyArch.indexOf('-');
+		return dash < 0 ? shortName(familyArch, null) : //
+			shortName(familyArch.substring(0, dash), familyArch.substring(dash + 1));
+	}
+
+	/**
+	 * Gets the short name of the platform this JVM runs on.
+	 *
+	 * @return the short name, e.g. {@code linux64}, or null if the platform has
+	 *         none
+	 */
+	public static String hostPlatform() {
+		return shortName(family(System.getProperty("os.name")), arch(System
+			.getProperty("os.arch")));
+	}
+
+	/**
+	 * Gets the classifier of the platform this JVM runs on, without prefix, e.g.
+	 * {@code linux-x86_64} or {@code linux-aarch64}.
+	 */
+	public static String hostClassifier() {
+		return family(System.getProperty("os.name")) + "-" + arch(System
+			.getProperty("os.arch"));
+	}
+
+	/**
+	 * Returns true iff an artifact with the given classifier is needed on any of
+	 * the given platforms: either it is not native at all, or it is native to
+	 * one of them. Platforms are given as short names (e.g. {@code linux64}) or
+	 * as classifiers without prefix (e.g. {@code linux-aarch64}).
+	 */
+	public static boolean isForPlatforms(final String classifier,
+		final Collection<String> platforms)
+	{
+		if (!isNativeClassifier(classifier)) return true;
+		final String platform = platform(classifier);
+		return platform != null && platforms.contains(platform) || //
+			platforms.contains(stripNativePrefix(classifier));
 	}
 
 	/**
@@ -141,6 +202,62 @@ public final class KnownPlatforms {
 			.collect(Collectors.toList());
 	}
 
+	private static List<String> createNativeClassifiers() {
+		final List<String> classifiers = new ArrayList<>();
+		for (final String family : FAMILIES) {
+			for (final String arch : ARCHES) {
+				classifiers.add(family + "-" + arch);
+				classifiers.add("native-" + family + "-" + arch);
+				classifiers.add("natives-" + family + "-" + arch);
+			}
+			classifiers.add(family);
+			classifiers.add("native-" + family);
+			classifiers.add("natives-" + family);
+		}
+		return classifiers;
+	}
+
+	/**
+	 * Strips the {@code native-} or {@code natives-} prefix off the given
+	 * classifier, e.g. {@code natives-linux-aarch64} &rarr; {@code linux-aarch64}.
+	 */
+	static String stripNativePrefix(final String classifier) {
+		for (final String prefix : new String[] { "natives-", "native-" }) {
+			if (classifier.startsWith(prefix)) {
+				return classifier.substring(prefix.length());
+			}
+		}
+		return classifier;
+	}
+
+	/** Maps the {@code os.name} system property to a family. */
+	private static String family(final String osName) {
+		if (osName == null) return null;
+		final String name = osName.toLowerCase();
+		if (name.startsWith("windows")) return "windows";
+		if (name.startsWith("mac") || name.startsWith("darwin")) return "macosx";
+		if (name.startsWith("linux")) return "linux";
+		return name;
+	}
+
+	/** Maps the {@code os.arch} system property to an arch. */
+	private static String arch(final String osArch) {
+		if (osArch == null) return null;
+		switch (osArch) {
+			case "amd64":
+			case "x86_64":
+				return "x86_64";
+			case "i386":
+			case "i486":
+			case "i586":
+			case "i686":
+			case "x86":
+				return "x86";
+			default:
+				return osArch;
+		}
+	}
+
 	private static boolean isWindows(final String family) {
 		return "windows".equals(family);
 	}
@@ -0,0 +1,145 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the coordinates of missing artifacts from resolution failures.
+ * <p>
+ * The resolver's exceptions carry the results of the failed requests; the
+ * artifacts which could not be resolved are taken from those. Since Maven
+ * 3.0 and 3.1+ use different resolver packages, the results are accessed
+ * reflectively. Should the exceptions not carry any results, the messages are
+ * searched for coordinates as a last resort; if nothing is found there either,
+ * callers report the raw message.
+ * </p>
+ */
+final class MissingArtifacts {
+
+	private static final Pattern LIST = Pattern.compile(
+		"The following artifacts could not be resolved: (.+?): ");
+
+	private static final Pattern SINGLE = Pattern.compile(
+		"(?:Could not find artifact|Failed to read artifact descriptor for|" +
+			"the artifact) ([^\\s:]+:[^\\s:]+:[^\\s]+?)(?: in |\\s|$)");
+
+	private MissingArtifacts() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/** Collects the missing artifacts reported by the exception and causes. */
+	static Set<String> from(final Throwable throwable) {
+		final Set<String> missing = new LinkedHashSet<>();
+		for (Throwable t = throwable; t != null; t = t.getCause()) {
+			collectResults(t, missing);
+			if (t.getCause() == t) break;
+		}
+		if (missing.isEmpty()) {
+			for (Throwable t = throwable; t != null; t = t.getCause()) {
+				parseMessage(t.getMessage(), missing);
+				if (t.getCause() == t) break;
+			}
+		}
+		return missing;
+	}
+
+	/**
+	 * Collects the unresolved artifacts of an {@code ArtifactResolutionException}
+	 * ({@code getResults()}), a {@code DependencyResolutionException} ({@code
+	 * getResult().getArtifactResults()}) or an {@code ArtifactDescriptorException}
+	 * ({@code getResult().getArtifact()}).
+	 */
+	private static void collectResults(final Throwable t,
+		final Set<String> missing)
+	{
+		final Object results = call(t, "getResults");
+		if (results instanceof Iterable) {
+			collectUnresolved((Iterable<?>) results, missing);
+			return;
+		}
+		final Object result = call(t, "getResult");
+		if (result == null) return;
+		final Object artifactResults = call(result, "getArtifactResults");
+		if (artifactResults instanceof Iterable) {
+			collectUnresolved((Iterable<?>) artifactResults, missing);
+			return;
+		}
+		final Object artifact = call(result, "getArtifact");
+		if (artifact != null && t.getClass().getSimpleName().equals(
+			"ArtifactDescriptorException"))
+		{
+			missing.add(artifact.toString());
+		}
+	}
+
+	private static void collectUnresolved(final Iterable<?> results,
+		final Set<String> missing)
+	{
+		for (final Object result : results) {
+			if (Boolean.TRUE.equals(call(result, "isResolved"))) continue;
+			final Object request = call(result, "getRequest");
+			final Object artifact = request == null ? null : call(request,
+				"getArtifact");
+			if (artifact != null) missing.add(artifact.toString());
+		}
+	}
+
+	private static Object call(final Object object, final String methodName) {
+		if (object == null) return null;
+		try {
+			final Method method = object.getClass().getMethod(methodName);
+			return method.invoke(object);
+		}
+		catch (final ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static void parseMessage(final String message,
+		final Set<String> missing)
+	{
+		if (message == null) return;
+		final Matcher list = LIST.matcher(message);
+		while (list.find()) {
+			for (final String coordinates : list.group(1).split(",\\s*")) {
+				missing.add(coordinates.trim());
+			}
+		}
+		final Matcher single = SINGLE.matcher(message);
+		while (single.find()) {
+			missing.add(single.group(1));
+		}
+	}
+}
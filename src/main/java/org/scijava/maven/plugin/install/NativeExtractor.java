@@ -0,0 +1,276 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Extracts the native libraries contained in native-classifier jars into the
+ * {@code lib/<platform>} directory of an application directory, so that they
+ * need not be unpacked at runtime.
+ * <p>
+ * Which libraries were extracted from which jar is recorded in
+ * {@code .scijava-install/natives.properties}, together with the SHA-1
+ * checksum of the jar. The libraries are extracted again only when the jar
+ * changed, and removed together with the jar, unless another installed jar
+ * extracted an identical library of the same name. Libraries which are not
+ * recorded, e.g. those shipped with the application, are never overwritten
+ * or removed.
+ * </p>
+ */
+final class NativeExtractor {
+
+	private static final String[] EXTENSIONS = { ".dll", ".dylib", ".jnilib",
+		".so" };
+
+	private final Path appPath;
+	private final PersistentCache extracted;
+
+	NativeExtractor(final File appDir) {
+		appPath = appDir.getAbsoluteFile().toPath().normalize();
+		extracted = new PersistentCache(new File(appPath.toFile(),
+			".scijava-install/natives.properties"),
+			"Extracted native libraries (jar=sha1|library|...)");
+	}
+
+	/**
+	 * Extracts the native libraries of the given jar into
+	 * {@code lib/<platform>}, unless they were already extracted from a jar with
+	 * the same checksum.
+	 * <p>
+	 * The libraries are stored by name only, so another installed jar may have
+	 * extracted a library of the same name already. If that library is
+	 * identical, it is shared by both jars; otherwise, nothing is extracted
+	 * from the given jar, and an {@link IOException} names the conflict. A
+	 * library of the same name which was not extracted by any jar is left
+	 * alone, and not recorded for the given jar.
+	 * </p>
+	 *
+	 * @param jar the installed jar
+	 * @param sha1 the SHA-1 checksum of the jar
+	 * @param platform the name of the platform subdirectory, e.g.
+	 *          {@code linux64}
+	 * @param skipped receives the paths, relative to the application directory,
+	 *          of the libraries left alone
+	 * @return the number of extracted libraries, or -1 if they were up to date
+	 */
+	synchronized int extract(final Path jar, final String sha1,
+		final String platform, final List<String> skipped) throws IOException
+	{
+		final String key = relativePath(jar);
+		final String previous = extracted.get(key);
+		if (previous != null && isExtracted(previous, sha1)) return -1;
+		delete(key, previous);
+		extracted.remove(key);
+
+		final Path directory = appPath.resolve("lib").resolve(platform);
+		final StringBuilder value = new StringBuilder(sha1);
+		int count = 0;
+		try (final ZipFile zip = new ZipFile(jar.toFile())) {
+			// NB: Check for conflicts first, so that a conflict extracts nothing.
+			final Map<Path, ZipEntry> libraries = new LinkedHashMap<>();
+			final Set<Path> shared = new HashSet<>();
+			final Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				final ZipEntry entry = entries.nextElement();
+				if (entry.isDirectory() || !isLibrary(entry.getName())) continue;
+				final Path target = directory.resolve(entry.getName().substring(entry
+					.getName().lastIndexOf('/') + 1));
+				final ZipEntry other = libraries.put(target, entry);
+				if (other != null) {
+					throw new IOException(jar.getFileName() + " contains both " + other
+						.getName() + " and " + entry.getName());
+				}
+				final String library = relativePath(target);
+				if (Files.exists(target) && !isRecorded(library)) {
+					// NB: The library was not extracted by us; do not touch it.
+					skipped.add(library);
+					libraries.remove(target);
+					continue;
+				}
+				final String owner = owner(library, key);
+				if (owner == null) continue;
+				if (!isSame(zip, entry, target)) {
+					throw new IOException(relativePath(target) +
+						" was already extracted from " + owner +
+						", with different contents");
+				}
+				shared.add(target);
+			}
+
+			for (final Map.Entry<Path, ZipEntry> library : libraries.entrySet()) {
+				final Path target = library.getKey();
+				value.append('|').append(relativePath(target));
+				if (shared.contains(target)) continue;
+				Files.createDirectories(directory);
+				final String name = target.getFileName().toString();
+				final Path temporary = Files.createTempFile(directory, "." + name,
+					".tmp");
+				try (final InputStream in = zip.getInputStream(library.getValue())) {
+					Files.copy(in, temporary, StandardCopyOption.REPLACE_EXISTING);
+					Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+				}
+				finally {
+					Files.deleteIfExists(temporary);
+				}
+				count++;
+			}
+		}
+		extracted.put(key, value.toString());
+		return count;
+	}
+
+	/**
+	 * Deletes the libraries extracted from the given jar, if any, except for
+	 * those another installed jar extracted as well.
+	 */
+	synchronized void remove(final Path jar) throws IOException {
+		final String key = relativePath(jar);
+		final String previous = extracted.get(key);
+		if (previous == null) return;
+		delete(key, previous);
+		extracted.remove(key);
+	}
+
+	/** Writes the record of extracted libraries back to disk, if it changed. */
+	void save() throws IOException {
+		extracted.save();
+	}
+
+	/** Returns true iff the given path looks like a native library. */
+	static boolean isLibrary(final String path) {
+		final String name = path.substring(path.lastIndexOf('/') + 1);
+		for (final String extension : EXTENSIONS) {
+			if (name.endsWith(extension)) return true;
+		}
+		// NB: Versioned shared objects, e.g. libfoo.so.1.
+		return name.contains(".so.");
+	}
+
+	private boolean isExtracted(final String value, final String sha1) {
+		final String[] tokens = value.split("\\|");
+		if (!tokens[0].equals(sha1)) return false;
+		for (int i = 1; i < tokens.length; i++) {
+			if (!Files.isRegularFile(appPath.resolve(tokens[i]))) return false;
+		}
+		return true;
+	}
+
+	private void delete(final String key, final String value)
+		throws IOException
+	{
+		if (value == null) return;
+		final String[] tokens = value.split("\\|");
+		for (int i = 1; i < tokens.length; i++) {
+			if (owner(tokens[i], key) != null) continue;
+			Files.deleteIfExists(appPath.resolve(tokens[i]));
+		}
+	}
+
+	/** Returns true iff any jar, installed or not, recorded the library. */
+	private boolean isRecorded(final String library) {
+		for (final String value : extracted.entries().values()) {
+			final String[] tokens = value.split("\\|");
+			for (int i = 1; i < tokens.length; i++) {
+				if (tokens[i].equals(library)) return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Finds another jar, still installed, from which the given library was
+	 * extracted.
+	 *
+	 * @param library the path of the library, relative to the application
+	 *          directory
+	 * @param key the relative path of the jar to disregard
+	 * @return the relative path of the other jar, or null if there is none
+	 */
+	private String owner(final String library, final String key) {
+		for (final Map.Entry<String, String> entry : extracted.entries()
+			.entrySet())
+		{
+			if (entry.getKey().equals(key) || !Files.exists(appPath.resolve(entry
+				.getKey())))
+			{
+				continue;
+			}
+			final String[] tokens = entry.getValue().split("\\|");
+			for (int i = 1; i < tokens.length; i++) {
+				if (tokens[i].equals(library)) return entry.getKey();
+			}
+		}
+		return null;
+	}
+
+	/** Returns true iff the given file has the contents of the zip entry. */
+	private static boolean isSame(final ZipFile zip, final ZipEntry entry,
+		final Path file) throws IOException
+	{
+		if (!Files.isRegularFile(file)) return false;
+		if (entry.getSize() >= 0 && entry.getSize() != Files.size(file)) {
+			return false;
+		}
+		try (final InputStream in = zip.getInputStream(entry)) {
+			final byte[] contents = Files.readAllBytes(file);
+			final byte[] buffer = new byte[8192];
+			int offset = 0;
+			for (;;) {
+				final int count = in.read(buffer);
+				if (count < 0) return offset == contents.length;
+				if (offset + count > contents.length) return false;
+				for (int i = 0; i < count; i++) {
+					if (buffer[i] != contents[offset + i]) return false;
+				}
+				offset += count;
+			}
+		}
+	}
+
+	private String relativePath(final Path path) {
+		return appPath.relativize(path.toAbsolutePath().normalize()).toString()
+			.replace(File.separatorChar, '/');
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A simple key/value cache which is persisted as a properties file.
+ * <p>
+ * The file is read lazily upon first access, and only written back by
+ * {@link #save()} if anything changed. All methods are thread-safe.
+ * </p>
+ */
+final class PersistentCache {
+
+	private final File file;
+	private final String comment;
+
+	private Properties properties;
+	private boolean dirty;
+
+	/**
+	 * @param file The properties file backing the cache, or null for a cache
+	 *          which lives in memory only.
+	 * @param comment The comment to write at the top of the file.
+	 */
+	PersistentCache(final File file, final String comment) {
+		this.file = file;
+		this.comment = comment;
+	}
+
+	/** Gets the cached value for the given key, or null if there is none. */
+	synchronized String get(final String key) {
+		return properties().getProperty(key);
+	}
+
+	/** Stores a value in the cache. */
+	synchronized void put(final String key, final String value) {
+		final Object previous = properties().setProperty(key, value);
+		if (!value.equals(previous)) dirty = true;
+	}
+
+	/** Removes a value from the cache. */
+	synchronized void remove(final String key) {
+		if (properties().remove(key) != null) dirty = true;
+	}
+
+	/** Gets a snapshot of all cached entries. */
+	synchronized Map<String, String> entries() {
+		final Map<String, String> entries = new HashMap<>();
+		for (final String key : properties().stringPropertyNames()) {
+			entries.put(key, properties.getProperty(key));
+		}
+		return entries;
+	}
+
+	/** Writes the cache back to its file, if it changed. */
+	synchronized void save() throws IOException {
+		if (file == null || !dirty) return;
+		final Path target = file.toPath();
+		Files.createDirectories(target.getParent());
+		final Path temp = Files.createTempFile(target.getParent(), file.getName(),
+			".tmp");
+		try {
+			try (final OutputStream out = Files.newOutputStream(temp)) {
+				properties.store(out, comment);
+			}
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+		dirty = false;
+	}
+
+	private Properties properties() {
+		if (properties == null) {
+			properties = new Properties();
+			if (file != null && file.isFile()) {
+				try (final InputStream in = Files.newInputStream(file.toPath())) {
+					properties.load(in);
+				}
+				catch (final IOException | IllegalArgumentException e) {
+					// NB: A corrupt cache is as good as no cache.
+					properties.clear();
+				}
+			}
+		}
+		return properties;
+	}
+}
@@ -0,0 +1,305 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * A merged index of the plugins in all jars of an application directory.
+ * <p>
+ * On startup, SciJava applications open every jar in {@code jars/} and
+ * {@code plugins/}, looking for {@code META-INF/json/org.scijava.plugin.Plugin}
+ * annotation indexes and ImageJ 1.x {@code plugins.config} files. This index
+ * combines all of them into {@code .scijava-install/plugin-index.json}, so
+ * that a launcher can read one file instead. It holds one JSON object per
+ * line: first the SciJava plugins, sorted by class, as
+ * {@code {"jar":"jars/foo.jar","plugin":{...}}} with the original index entry;
+ * then the ImageJ 1.x plugins, sorted by jar, as
+ * {@code {"jar":"plugins/Foo_.jar","ij1":"Plugins>Foo, \"Foo\", Foo_"}}.
+ * </p>
+ * <p>
+ * The entries of each jar are cached in
+ * {@code .scijava-install/plugin-index.properties} by size and modification
+ * time, so that updating the index only opens added or changed jars. Build
+ * output directories linked in place of jars are read every time, as their
+ * contents change without their stamp changing.
+ * </p>
+ */
+final class PluginIndex {
+
+	static final String SCIJAVA_INDEX = "META-INF/json/org.scijava.plugin.Plugin";
+
+	static final String IJ1_CONFIG = "plugins.config";
+
+	private static final List<String> DIRECTORIES = Arrays.asList("jars",
+		"plugins");
+
+	private static final Pattern CLASS = Pattern.compile(
+		"\"class\"\\s*:\\s*\"([^\"]*)\"");
+
+	private final Path appPath;
+	private final File indexFile;
+	private final PersistentCache jars;
+
+	PluginIndex(final File appDir) {
+		appPath = appDir.getAbsoluteFile().toPath().normalize();
+		indexFile = new File(appPath.toFile(),
+			".scijava-install/plugin-index.json");
+		jars = new PersistentCache(new File(appPath.toFile(),
+			".scijava-install/plugin-index.properties"),
+			"Plugins per jar (jar=size:mtime:entries)");
+	}
+
+	/** Gets the file holding the merged index. */
+	File file() {
+		return indexFile;
+	}
+
+	/**
+	 * Brings the index up to date with the jars currently in the application
+	 * directory.
+	 *
+	 * @return true iff the index changed
+	 */
+	boolean update() throws IOException {
+		final List<Entry> plugins = new ArrayList<>();
+		final List<Entry> ij1Plugins = new ArrayList<>();
+		final Set<String> seen = new HashSet<>();
+		for (final Path jar : listJars()) {
+			final String key = appPath.relativize(jar).toString().replace(
+				File.separatorChar, '/');
+			seen.add(key);
+			final String stamp = InstallManifest.stamp(jar.toFile());
+			String value = jars.get(key);
+			if (value == null || !value.startsWith(stamp) || Files.isDirectory(
+				jar))
+			{
+				value = stamp + read(jar);
+				jars.put(key, value);
+			}
+			for (final String line : value.substring(stamp.length()).split("\n")) {
+				if (line.startsWith("P ")) {
+					plugins.add(new Entry(key, className(line), line.substring(2)));
+				}
+				else if (line.startsWith("I ")) {
+					ij1Plugins.add(new Entry(key, "", line.substring(2)));
+				}
+			}
+		}
+		for (final String key : jars.entries().keySet()) {
+			if (!seen.contains(key)) jars.remove(key);
+		}
+		jars.save();
+
+		final Comparator<Entry> byJar = Comparator.comparing(e -> e.jar);
+		Collections.sort(plugins, Comparator.<Entry, String> comparing(
+			e -> e.className).thenComparing(byJar));
+		// NB: The sort is stable, keeping each plugins.config in order.
+		Collections.sort(ij1Plugins, byJar);
+		final StringBuilder content = new StringBuilder();
+		for (final Entry entry : plugins) {
+			content.append("{\"jar\":").append(quote(entry.jar)) //
+				.append(",\"plugin\":").append(entry.value).append("}\n");
+		}
+		for (final Entry entry : ij1Plugins) {
+			content.append("{\"jar\":").append(quote(entry.jar)) //
+				.append(",\"ij1\":").append(quote(entry.value)).append("}\n");
+		}
+		return write(content.toString());
+	}
+
+	/**
+	 * Reads the plugin entries of the given jar, one per line: {@code P} and
+	 * the SciJava index entry, or {@code I} and the plugins.config line.
+	 */
+	static String read(final Path jar) throws IOException {
+		if (Files.isDirectory(jar)) {
+			return entries(readFully(jar.resolve(SCIJAVA_INDEX)), readFully(jar
+				.resolve(IJ1_CONFIG)));
+		}
+		try (final ZipFile zip = new ZipFile(jar.toFile())) {
+			return entries(readFully(zip, zip.getEntry(SCIJAVA_INDEX)), readFully(
+				zip, zip.getEntry(IJ1_CONFIG)));
+		}
+	}
+
+	private static String entries(final String index, final String config) {
+		final StringBuilder entries = new StringBuilder();
+		if (index != null) {
+			for (final String object : splitObjects(index)) {
+				entries.append("P ").append(object).append('\n');
+			}
+		}
+		if (config != null) {
+			for (final String line : config.split("\r?\n")) {
+				final String trimmed = line.trim();
+				if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+				entries.append("I ").append(trimmed).append('\n');
+			}
+		}
+		return entries.toString();
+	}
+
+	/**
+	 * Splits a sequence of concatenated JSON objects, as written by the SciJava
+	 * annotation processor, into the individual objects, each on one line.
+	 */
+	static List<String> splitObjects(final String json) {
+		final List<String> objects = new ArrayList<>();
+		final StringBuilder object = new StringBuilder();
+		int depth = 0;
+		boolean inString = false, escaped = false;
+		for (int i = 0; i < json.length(); i++) {
+			final char c = json.charAt(i);
+			if (depth == 0 && c != '{') continue;
+			if (inString) {
+				if (escaped) escaped = false;
+				else if (c == '\\') escaped = true;
+				else if (c == '"') inString = false;
+			}
+			else if (c == '"') inString = true;
+			else if (c == '{') depth++;
+			else if (c == '}') depth--;
+			// NB: Raw line breaks can only be insignificant whitespace.
+			object.append(c == '\n' || c == '\r' ? ' ' : c);
+			if (depth == 0) {
+				objects.add(object.toString());
+				object.setLength(0);
+			}
+		}
+		return objects;
+	}
+
+	private List<Path> listJars() throws IOException {
+		final List<Path> result = new ArrayList<>();
+		for (final String directory : DIRECTORIES) {
+			final Path path = appPath.resolve(directory);
+			if (!Files.isDirectory(path)) continue;
+			try (final Stream<Path> files = Files.walk(path)) {
+				// NB: Build output directories may be linked in place of jars.
+				result.addAll(files.filter(p -> p.getFileName().toString().endsWith(
+					".jar") && (Files.isRegularFile(p) || Files.isDirectory(p))).collect(
+						Collectors.toList()));
+			}
+		}
+		return result;
+	}
+
+	private boolean write(final String content) throws IOException {
+		final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		final Path target = indexFile.toPath();
+		if (Files.isRegularFile(target) && Arrays.equals(bytes, Files.readAllBytes(
+			target)))
+		{
+			return false;
+		}
+		Files.createDirectories(target.getParent());
+		final Path temp = Files.createTempFile(target.getParent(), indexFile
+			.getName(), ".tmp");
+		try {
+			Files.write(temp, bytes);
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			Files.deleteIfExists(temp);
+		}
+		return true;
+	}
+
+	private static String readFully(final Path file) throws IOException {
+		if (!Files.isRegularFile(file)) return null;
+		return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+	}
+
+	private static String readFully(final ZipFile zip, final ZipEntry entry)
+		throws IOException
+	{
+		if (entry == null) return null;
+		try (final InputStream in = zip.getInputStream(entry);
+				final BufferedReader reader = new BufferedReader(new InputStreamReader(
+					in, StandardCharsets.UTF_8)))
+		{
+			return reader.lines().collect(Collectors.joining("\n"));
+		}
+	}
+
+	private static String className(final String line) {
+		final Matcher matcher = CLASS.matcher(line);
+		return matcher.find() ? matcher.group(1) : "";
+	}
+
+	private static String quote(final String s) {
+		final StringBuilder quoted = new StringBuilder("\"");
+		for (int i = 0; i < s.length(); i++) {
+			final char c = s.charAt(i);
+			if (c == '"' || c == '\\') quoted.append('\\').append(c);
+			else if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+			else quoted.append(c);
+		}
+		return quoted.append('"').toString();
+	}
+
+	/** One plugin entry, with the jar providing it. */
+	private static final class Entry {
+
+		private final String jar;
+		private final String className;
+		private final String value;
+
+		private Entry(final String jar, final String className,
+			final String value)
+		{
+			this.jar = jar;
+			this.className = className;
+			this.value = value;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads a single property from POMs in the local repository, without building
+ * the project model.
+ * <p>
+ * The {@code <properties>} of a POM are streamed; only if the property is not
+ * set there, the {@code <parent>} chain is followed. The parsed POMs are
+ * memoized, so shared parents are read only once.
+ * </p>
+ * <p>
+ * Whenever the raw POMs cannot tell the effective value of the property,
+ * because it needs interpolation, is set in a profile, or a parent POM is not
+ * available locally, an {@link IOException} is thrown, and the caller should
+ * build the project instead.
+ * </p>
+ */
+final class PomPropertyReader {
+
+	/** The property-related facts about a single POM. */
+	private static final class Pom {
+
+		/** The value of the property, or {@code null} if it is not set. */
+		private String value;
+
+		/** Whether a profile sets the property. */
+		private boolean inProfile;
+
+		/** The coordinates of the parent POM, if any. */
+		private String parentGroupId, parentArtifactId, parentVersion;
+	}
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	private final File localRepository;
+
+	private final String name;
+
+	private final Map<File, Pom> poms = new ConcurrentHashMap<>();
+
+	PomPropertyReader(final File localRepository, final String name) {
+		this.localRepository = localRepository;
+		this.name = name;
+	}
+
+	/**
+	 * Reads the effective value of the property from the given POM and its
+	 * parents.
+	 *
+	 * @return the value, or {@code null} if the property is not set
+	 * @throws IOException if the value cannot be determined from the raw POMs
+	 */
+	String read(final File pomFile) throws IOException {
+		final Set<File> seen = new HashSet<>();
+		File file = pomFile;
+		while (seen.add(file)) {
+			final Pom pom = pom(file);
+			if (pom.inProfile) {
+				throw new IOException(name + " is set in a profile of " + file);
+			}
+			if (pom.value != null) {
+				if (pom.value.contains("${")) {
+					throw new IOException(name + " needs interpolation in " + file);
+				}
+				return pom.value;
+			}
+			if (pom.parentArtifactId == null) return null;
+			if (pom.parentGroupId == null || pom.parentVersion == null || //
+				pom.parentGroupId.contains("${") || pom.parentVersion.contains("${"))
+			{
+				throw new IOException("Unresolvable parent of " + file);
+			}
+			file = pomFile(pom.parentGroupId, pom.parentArtifactId,
+				pom.parentVersion);
+			if (!file.isFile()) {
+				throw new IOException("Parent POM not in local repository: " + file);
+			}
+		}
+		throw new IOException("Cyclic parents: " + pomFile);
+	}
+
+	/** Gets the location of the given POM in the local repository. */
+	File pomFile(final String groupId, final String artifactId,
+		final String version)
+	{
+		return new File(localRepository, groupId.replace('.', '/') + "/" +
+			artifactId + "/" + version + "/" + artifactId + "-" + version + ".pom");
+	}
+
+	// -- Helper methods --
+
+	private Pom pom(final File file) throws IOException {
+		final Pom cached = poms.get(file);
+		if (cached != null) return cached;
+		final Pom pom = parse(file);
+		poms.put(file, pom);
+		return pom;
+	}
+
+	private Pom parse(final File file) throws IOException {
+		final Pom pom = new Pom();
+		try (final InputStream in = Files.newInputStream(file.toPath())) {
+			final XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+			try {
+				final List<String> path = new ArrayList<>();
+				while (reader.hasNext()) {
+					switch (reader.next()) {
+						case XMLStreamConstants.START_ELEMENT:
+							path.add(reader.getLocalName());
+							if (!isInteresting(path)) skip(reader, path);
+							else if (isValue(path)) {
+								assign(pom, path, reader.getElementText().trim());
+							}
+							break;
+						case XMLStreamConstants.END_ELEMENT:
+							path.remove(path.size() - 1);
+							break;
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+		}
+		catch (final XMLStreamException e) {
+			throw new IOException("Could not parse " + file + ": " + e
+				.getMessage(), e);
+		}
+		return pom;
+	}
+
+	/** Whether the element at the given path, or its children, matter. */
+	private boolean isInteresting(final List<String> path) {
+		switch (path.size()) {
+			case 1:
+				return is(path, 0, "project");
+			case 2:
+				return is(path, 1, "parent", "properties", "profiles");
+			case 3:
+				if (is(path, 1, "parent")) return true;
+				if (is(path, 1, "properties")) return is(path, 2, name);
+				return is(path, 2, "profile");
+			case 4:
+				return is(path, 3, "properties");
+			case 5:
+				return is(path, 4, name);
+			default:
+				return false;
+		}
+	}
+
+	/** Whether the (interesting) element at the given path holds a value. */
+	private static boolean isValue(final List<String> path) {
+		return path.size() == 5 || path.size() == 3 && !is(path, 1, "profiles");
+	}
+
+	private void assign(final Pom pom, final List<String> path,
+		final String text)
+	{
+		// NB: getElementText() consumed the end element already.
+		final String element = path.remove(path.size() - 1);
+		if (path.size() == 4) pom.inProfile = true;
+		else if ("properties".equals(path.get(1))) pom.value = text;
+		else if ("groupId".equals(element)) pom.parentGroupId = text;
+		else if ("artifactId".equals(element)) pom.parentArtifactId = text;
+		else if ("version".equals(element)) pom.parentVersion = text;
+	}
+
+	private static boolean is(final List<String> path, final int index,
+		final String... names)
+	{
+		for (final String candidate : names) {
+			if (candidate.equals(path.get(index))) return true;
+		}
+		return false;
+	}
+
+	/** Skips the current element, including all of its children. */
+	private static void skip(final XMLStreamReader reader,
+		final List<String> path) throws XMLStreamException
+	{
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+				case XMLStreamConstants.START_ELEMENT:
+					depth++;
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					depth--;
+					break;
+			}
+		}
+		path.remove(path.size() - 1);
+	}
+
+	private static XMLInputFactory createFactory() {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+			false);
+		return factory;
+	}
+}
@@ -31,24 +31,30 @@ package org.scijava.maven.plugin.install;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Properties;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.plugin.MojoExecutionException;
-import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
-import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
-import org.apache.maven.project.ProjectBuildingResult;
-import org.apache.maven.shared.artifact.filter.resolve.TransformableFilter;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolverException;
 import org.apache.maven.shared.artifact.resolve.ArtifactResult;
 import org.apache.maven.shared.dependencies.DefaultDependableCoordinate;
-import org.apache.maven.shared.dependencies.resolve.DependencyResolver;
 import org.apache.maven.shared.dependencies.resolve.DependencyResolverException;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
 
 /**
  * Copies .jar artifacts and their dependencies into a SciJava application
@@ -67,7 +73,7 @@ import org.apache.maven.shared.dependencies.resolve.DependencyResolverException;
  * @author Stefan Helfrich
  * @author Philipp Hanslovsky
  */
-@Mojo(name = "populate-app", requiresProject = true, requiresOnline = true)
+@Mojo(name = "populate-app", requiresProject = true)
 public class PopulateAppMojo extends AbstractInstallMojo {
 
 	/**
@@ -83,23 +89,81 @@ public class PopulateAppMojo extends AbstractInstallMojo {
 	private boolean ignoreOptionalDependencies;
 
 	/**
-	 * The dependency resolver to.
+	 * If this option is set to <code>true</code>, the artifacts of all modules
+	 * of a multi-module build are collected, and installed in a single pass
+	 * after the last module using this goal with this option set is done. Should
+	 * the reactor end before all those modules contributed, a warning is
+	 * logged.
+	 * <p>
+	 * Artifacts needed by several modules are installed only once, and the
+	 * application directory is scanned only once. The installation uses the
+	 * configuration of the last module.
+	 * </p>
 	 */
-	@Component
-	private DependencyResolver dependencyResolver;
+	@Parameter(property = AGGREGATE_PROPERTY, defaultValue = "false")
+	private boolean aggregate;
+
+	/**
+	 * If this option is set to <code>true</code>, the modules of the reactor
+	 * are installed as links to their build output directories (e.g.
+	 * <code>target/classes</code>) instead of copies of their .jar files.
+	 * <p>
+	 * The links are named like the .jar files they stand in for, so that
+	 * they replace them (and vice versa). As they always point to the latest
+	 * compiled classes, recompiling is enough to update the application;
+	 * neither packaging nor installing again is needed.
+	 * </p>
+	 */
+	@Parameter(property = EXPLODED_PROPERTY, defaultValue = "false")
+	private boolean exploded;
+
+	/**
+	 * If this option is set to <code>true</code>, populate-app keeps running
+	 * after the installation, watching the .jar files built by the reactor
+	 * modules it installed. Whenever one of them is rebuilt, e.g. by
+	 * <code>mvn package</code> in another terminal, only that .jar file is
+	 * installed again, reusing the resolution and the index of the application
+	 * directory of the initial installation.
+	 * <p>
+	 * As the goal never returns, it watches only in the last module of the
+	 * reactor, once the installation was applied there (with
+	 * {@link #aggregate}, after all modules contributed); in any other module,
+	 * watching is skipped with a warning, so that the remaining modules are
+	 * still built. Stop it with Ctrl+C. Modules installed {@link #exploded} are
+	 * up to date anyway, and not watched.
+	 * </p>
+	 */
+	@Parameter(property = WATCH_PROPERTY, defaultValue = "false")
+	private boolean watch;
+
+	/** How long a rebuilt .jar file must be left alone before installing it. */
+	private static final long WATCH_QUIET_MILLIS = 500;
+
+	/** The .jar files of reactor modules to {@link #watch}. */
+	private final Map<Path, Artifact> watched = new LinkedHashMap<>();
 
 	private DefaultDependableCoordinate coordinate = new DefaultDependableCoordinate();
 
 	private File appDir;
 
-	@Component
-	private ProjectBuilder mavenProjectBuilder;
+	/** The name of the {@link ReactorAggregate} in the {@link SessionCache}. */
+	private static final String REACTOR_AGGREGATE = "reactor-aggregate";
 
 	@Override
 	public void execute() throws MojoExecutionException {
+		try {
+			populate();
+		}
+		finally {
+			checkAggregate();
+		}
+	}
+
+	private void populate() throws MojoExecutionException {
 		if (appDirectory == null) {
 			getLog().info("Property '" + APP_DIRECTORY_PROPERTY +
 				"' unset; skipping populate-app.");
+			if (aggregate) installAggregate(new InstallPlan());
 			return;
 		}
 		final String interpolated = interpolate(appDirectory, project);
@@ -115,6 +179,7 @@ public class PopulateAppMojo extends AbstractInstallMojo {
 				"'" + appDirectory + "'" +
 					(interpolated.equals(appDirectory) ? "" : " (" + appDirectory + ")") +
 					" is not a SciJava application directory; skipping populate-app.");
+			if (aggregate) installAggregate(new InstallPlan());
 			return;
 		}
 
@@ -125,52 +190,310 @@ public class PopulateAppMojo extends AbstractInstallMojo {
 		coordinate.setType(project.getPackaging());
 
 		try {
-			final TransformableFilter scopeAndNotOptionalFilter =
-					makeTransformableFilterDefaultExclusions(ignoreOptionalDependencies);
-
-			ProjectBuildingRequest buildingRequest = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+			ProjectBuildingRequest buildingRequest = prepareRequest(new DefaultProjectBuildingRequest(session.getProjectBuildingRequest()));
 			buildingRequest.setProject( project );
 
-			Iterable<ArtifactResult> resolveDependencies = dependencyResolver
-					.resolveDependencies(buildingRequest, coordinate, scopeAndNotOptionalFilter);
+			final Iterable<ArtifactResult> resolveDependencies;
+			if (ignoreDependencies) {
+				// NB: Do not resolve dependencies which would be ignored anyway.
+				final Artifact projectArtifact = project.getArtifact();
+				final ArtifactResult result = projectArtifact.getFile() != null ?
+					() -> projectArtifact : resolveArtifact(buildingRequest, coordinate);
+				resolveDependencies = Collections.singletonList(result);
+			}
+			else {
+				resolveDependencies = resolveDependencies(buildingRequest, coordinate,
+					ignoreOptionalDependencies);
+			}
+			final InstallPlan plan = new InstallPlan();
+			try {
 				for (ArtifactResult result : resolveDependencies) {
-					Artifact artifact = result.getArtifact();
-					try {
-						if (project.getArtifact().equals(artifact)) {
-							installArtifact(artifact, appDir, appSubdirectory, false,
-								deleteOtherVersionsPolicy);
-							continue;
-						}
-						// Resolution of the subdirectory for dependencies is handled in installArtifact
-						if (!ignoreDependencies) {
-							String subdir = getAppSubDirectoryProperty(artifact);
-
-							installArtifact(artifact, appDir, subdir, false, deleteOtherVersionsPolicy);
-						}
+					Artifact artifact = explode(result.getArtifact());
+					if (watch) addWatch(artifact);
+					if (isInstalled(artifact, appDir)) continue;
+					if (project.getArtifact().equals(artifact)) {
+						install(plan, artifact, appSubdirectory, true);
+						continue;
+					}
+					// Resolution of the subdirectory for dependencies is handled in installArtifact
+					if (!ignoreDependencies) {
+						install(plan, artifact, appSubdirectory(artifact), false);
 					}
-					catch (IOException e) {
-						throw new MojoExecutionException("Couldn't download artifact " +
-							result.getArtifact() + ": " + e.getMessage(), e);
+				}
+				final boolean installed;
+				if (aggregate) installed = installAggregate(plan);
+				else {
+					// NB: Modules running later may still need the files.
+					if (isLastParticipant()) planSync(plan);
+					else if (sync != null && sync != SyncMode.off) {
+						getLog().info("Deferring the sync until the last module " +
+							"running populate-app");
 					}
+					applyPlan(plan);
+					installed = true;
 				}
+				if (watch) {
+					// NB: The goal never returns, so it must not hold up the reactor.
+					if (!installed) {
+						getLog().warn("Not watching: the installation is deferred to " +
+							"a later module");
+					}
+					else if (!isLastModule()) {
+						getLog().warn("Not watching: " + project.getArtifactId() +
+							" is not the last module of the reactor");
+					}
+					else watchReactor();
+				}
+			}
+			catch (IOException e) {
+				throw new MojoExecutionException(e.getMessage(), e);
+			}
 		}
 		catch (DependencyResolverException e) {
-			throw new MojoExecutionException(
-				"Couldn't resolve dependencies for artifact: " + e.getMessage(), e);
+			throw resolutionFailure("Couldn't resolve dependencies for artifact", e);
+		}
+		catch (ArtifactResolverException e) {
+			throw resolutionFailure("Couldn't resolve artifact", e);
 		}
 	}
 
-	private String getAppSubDirectoryProperty(Artifact artifact) {
+	private String appSubdirectory(final Artifact artifact) {
 		try {
-			ProjectBuildingResult build = mavenProjectBuilder.build(artifact, //
-				session.getProjectBuildingRequest());
-			Properties properties = build.getProject().getProperties();
-			String subdir = (String) properties.get(APP_SUBDIRECTORY_PROPERTY);
-			return subdir;
+			return getAppSubdirectoryProperty(artifact);
 		}
 		catch (ProjectBuildingException e) {
-			// TODO: log.debug( "Couldn't determine " + APP_SUBDIRECTORY_PROPERTY + " for " + artifact, e );
+			getLog().debug("Couldn't determine " + APP_SUBDIRECTORY_PROPERTY +
+				" for " + artifact, e);
 			return null;
 		}
 	}
+
+	/** Finds the reactor module building the given artifact, if any. */
+	private MavenProject reactorModule(final Artifact artifact) {
+		if (artifact.getClassifier() != null) return null;
+		for (final MavenProject module : session.getProjects()) {
+			if (module.getGroupId().equals(artifact.getGroupId()) &&
+				module.getArtifactId().equals(artifact.getArtifactId()) &&
+				module.getVersion().equals(artifact.getBaseVersion()))
+			{
+				return module;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Substitutes the build output directory for the file of the given
+	 * artifact, if it is a reactor module and {@link #exploded} is set.
+	 */
+	private Artifact explode(final Artifact artifact) {
+		if (!exploded) return artifact;
+		final MavenProject module = reactorModule(artifact);
+		if (module == null) return artifact;
+		final File classes = new File(module.getBuild().getOutputDirectory());
+		if (!classes.isDirectory()) return artifact;
+		final Artifact explodedArtifact = ArtifactUtils.copyArtifact(artifact);
+		explodedArtifact.setFile(classes);
+		return explodedArtifact;
+	}
+
+	/** Adds the .jar file of the given reactor module to the {@link #watch}. */
+	private void addWatch(final Artifact artifact) {
+		final MavenProject module = reactorModule(artifact);
+		if (module == null || !"jar".equals(artifact.getType()) ||
+			artifact.getFile() != null && artifact.getFile().isDirectory())
+		{
+			return;
+		}
+		watched.put(new File(module.getBuild().getDirectory(), module.getBuild()
+			.getFinalName() + ".jar").toPath().toAbsolutePath().normalize(),
+			artifact);
+	}
+
+	/**
+	 * Installs the {@link #watched} .jar files again whenever they change,
+	 * until interrupted.
+	 */
+	private void watchReactor() throws IOException {
+		if (watched.isEmpty()) {
+			getLog().info("No reactor modules to watch");
+			return;
+		}
+		getLog().info("Watching " + watched.size() +
+			" module(s) for changes; press Ctrl+C to stop");
+		try (final BuildOutputWatcher watcher = new BuildOutputWatcher(watched
+			.keySet()))
+		{
+			while (true) {
+				final Set<Path> changed = watcher.await(WATCH_QUIET_MILLIS);
+				final long start = System.currentTimeMillis();
+				final InstallPlan plan = new InstallPlan();
+				for (final Path jar : changed) {
+					final Artifact artifact = ArtifactUtils.copyArtifact(watched.get(
+						jar));
+					artifact.setFile(jar.toFile());
+					final String subdir = project.getArtifact().equals(artifact)
+						? appSubdirectory : appSubdirectory(artifact);
+					planInstall(plan, artifact, appDir, subdir, false,
+						deleteOtherVersionsPolicy);
+				}
+				applyPlan(plan);
+				getLog().info("Re-installed " + changed.size() + " module(s) in " +
+					(System.currentTimeMillis() - start) + " ms");
+			}
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void install(final InstallPlan plan, final Artifact artifact,
+		final String subdir, final boolean own) throws IOException
+	{
+		if (aggregate) reactorAggregate().add(appDir, artifact, subdir, own);
+		else planInstall(plan, artifact, appDir, subdir, false,
+			deleteOtherVersionsPolicy);
+	}
+
+	/**
+	 * Installs the artifacts collected from all modules, if this is the last
+	 * module to contribute to the {@link ReactorAggregate}.
+	 *
+	 * @return whether the artifacts were installed, i.e. were not deferred
+	 */
+	private boolean installAggregate(final InstallPlan plan)
+		throws MojoExecutionException
+	{
+		final ReactorAggregate reactorAggregate = reactorAggregate();
+		final Map<File, List<ReactorAggregate.Entry>> entries = reactorAggregate
+			.contributed(project.getId());
+		if (entries == null) {
+			getLog().info("Deferring populate-app until the remaining " +
+				reactorAggregate.pending() + " module(s) are done");
+			return false;
+		}
+		try {
+			for (final Map.Entry<File, List<ReactorAggregate.Entry>> entry : entries
+				.entrySet())
+			{
+				final File dir = entry.getKey();
+				getLog().info("Installing " + entry.getValue().size() +
+					" artifacts of the reactor into " + dir);
+				for (final ReactorAggregate.Entry artifact : entry.getValue()) {
+					if (isInstalled(artifact.artifact, dir)) continue;
+					planInstall(plan, artifact.artifact, dir, artifact.subdirectory,
+						false, deleteOtherVersionsPolicy);
+				}
+			}
+			planSync(plan);
+			applyPlan(plan);
+			return true;
+		}
+		catch (IOException e) {
+			throw new MojoExecutionException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Gets the session's {@link ReactorAggregate}. The modules contributing to
+	 * it are those which bind this goal with {@link #aggregate} set, or all
+	 * modules of the reactor if none binds it, e.g. when the goal is invoked on
+	 * the command line.
+	 */
+	private ReactorAggregate reactorAggregate() {
+		return SessionCache.get(session, REACTOR_AGGREGATE, () -> {
+			final List<String> all = new ArrayList<>();
+			final List<String> aggregating = new ArrayList<>();
+			boolean bound = false;
+			final String pluginKey = mojoExecution.getMojoDescriptor()
+				.getPluginDescriptor().getPluginLookupKey();
+			for (final MavenProject reactorProject : session.getProjects()) {
+				all.add(reactorProject.getId());
+				final Plugin plugin = reactorProject.getPlugin(pluginKey);
+				if (plugin == null) continue;
+				for (final PluginExecution execution : plugin.getExecutions()) {
+					if (!execution.getGoals().contains(mojoExecution.getGoal())) continue;
+					bound = true;
+					if (aggregates(reactorProject, plugin, execution)) {
+						aggregating.add(reactorProject.getId());
+						break;
+					}
+				}
+			}
+			return new ReactorAggregate(bound ? aggregating : all);
+		});
+	}
+
+	/**
+	 * Determines whether the given execution of this goal has
+	 * {@link #aggregate} set: in the configuration of the execution, of the
+	 * plugin, or by the property.
+	 */
+	private boolean aggregates(final MavenProject module, final Plugin plugin,
+		final PluginExecution execution)
+	{
+		String value = configuredAggregate(execution.getConfiguration());
+		if (value == null) value = configuredAggregate(plugin.getConfiguration());
+		if (value == null) value = "${" + AGGREGATE_PROPERTY + "}";
+		final String trimmed = value.trim();
+		if (trimmed.startsWith("${") && trimmed.endsWith("}")) {
+			final String name = trimmed.substring(2, trimmed.length() - 1);
+			value = session.getUserProperties().getProperty(name);
+			if (value == null) value = session.getSystemProperties().getProperty(
+				name);
+			if (value == null) value = module.getProperties().getProperty(name);
+		}
+		return value != null && Boolean.parseBoolean(value.trim());
+	}
+
+	private static String configuredAggregate(final Object configuration) {
+		if (!(configuration instanceof Xpp3Dom)) return null;
+		final Xpp3Dom child = ((Xpp3Dom) configuration).getChild("aggregate");
+		return child == null ? null : child.getValue();
+	}
+
+	/**
+	 * Whether this is the last module of the reactor running this goal: the
+	 * last one binding it, or the last module if none binds it, e.g. when the
+	 * goal is invoked on the command line.
+	 */
+	private boolean isLastParticipant() {
+		final List<MavenProject> projects = session.getProjects();
+		if (projects == null) return true;
+		final String pluginKey = mojoExecution.getMojoDescriptor()
+			.getPluginDescriptor().getPluginLookupKey();
+		String last = null;
+		for (final MavenProject reactorProject : projects) {
+			final Plugin plugin = reactorProject.getPlugin(pluginKey);
+			if (plugin == null) continue;
+			for (final PluginExecution execution : plugin.getExecutions()) {
+				if (execution.getGoals().contains(mojoExecution.getGoal())) {
+					last = reactorProject.getId();
+					break;
+				}
+			}
+		}
+		return last == null ? isLastModule() : last.equals(project.getId());
+	}
+
+	/** Whether this is the last module built by the reactor. */
+	private boolean isLastModule() {
+		final List<MavenProject> projects = session.getProjects();
+		return projects == null || projects.isEmpty() || projects.get(projects
+			.size() - 1).getId().equals(project.getId());
+	}
+
+	/**
+	 * Warns when the reactor is done, but the {@link ReactorAggregate} is still
+	 * waiting for modules, so that the aggregated installation never happened.
+	 */
+	private void checkAggregate() {
+		if (!isLastModule()) return;
+		final ReactorAggregate reactorAggregate = SessionCache.peek(session,
+			REACTOR_AGGREGATE);
+		if (reactorAggregate != null && reactorAggregate.pending() > 0) {
+			getLog().warn("The aggregated populate-app never happened: " +
+				reactorAggregate.pending() + " module(s) did not contribute");
+		}
+	}
 }
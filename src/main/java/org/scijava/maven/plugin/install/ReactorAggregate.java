@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Collects the artifacts to install from all modules of a reactor build, so
+ * that they can be installed in a single pass once the last module is done.
+ * <p>
+ * Artifacts are deduplicated by their full coordinates. A module's own
+ * artifact takes precedence over the same artifact as a dependency of another
+ * module, so that the module's {@code scijava.app.subdirectory} applies.
+ * </p>
+ */
+final class ReactorAggregate {
+
+	/** An artifact to install, and where to install it. */
+	static final class Entry {
+
+		final Artifact artifact;
+
+		final String subdirectory;
+
+		private final boolean own;
+
+		private Entry(final Artifact artifact, final String subdirectory,
+			final boolean own)
+		{
+			this.artifact = artifact;
+			this.subdirectory = subdirectory;
+			this.own = own;
+		}
+	}
+
+	private final Set<String> pending;
+
+	private final Map<File, Map<String, Entry>> entries = new LinkedHashMap<>();
+
+	private boolean done;
+
+	/**
+	 * @param participants The IDs of all projects which will contribute.
+	 */
+	ReactorAggregate(final Collection<String> participants) {
+		pending = new LinkedHashSet<>(participants);
+	}
+
+	/**
+	 * Adds an artifact to install into the given application directory.
+	 *
+	 * @param own whether this is the artifact of the contributing module itself
+	 */
+	synchronized void add(final File appDir, final Artifact artifact,
+		final String subdirectory, final boolean own)
+	{
+		final Map<String, Entry> artifacts = entries.computeIfAbsent(appDir
+			.getAbsoluteFile(), dir -> new LinkedHashMap<>());
+		final String key = artifact.getId();
+		final Entry existing = artifacts.get(key);
+		if (existing == null || own && !existing.own) {
+			artifacts.put(key, new Entry(artifact, subdirectory, own));
+		}
+	}
+
+	/**
+	 * Marks the given project as done.
+	 *
+	 * @return the collected artifacts, by application directory, if this was the
+	 *         last project to contribute; {@code null} otherwise
+	 */
+	synchronized Map<File, List<Entry>> contributed(final String projectId) {
+		pending.remove(projectId);
+		if (done || !pending.isEmpty()) return null;
+		done = true;
+		final Map<File, List<Entry>> result = new LinkedHashMap<>();
+		for (final Map.Entry<File, Map<String, Entry>> entry : entries
+			.entrySet())
+		{
+			result.put(entry.getKey(), new ArrayList<>(entry.getValue().values()));
+		}
+		return result;
+	}
+
+	/** Gets the number of projects which still need to contribute. */
+	synchronized int pending() {
+		return pending.size();
+	}
+}
@@ -0,0 +1,255 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A lockfile recording the outcome of dependency resolutions.
+ * <p>
+ * The file holds one section per resolution, named after what was resolved,
+ * so that the modules of a reactor can share one lockfile. Each section lists
+ * the resolved artifacts, one per line, with their scope, SHA-1 checksum and
+ * location, preceded by a fingerprint of the resolution's inputs. As long as
+ * the fingerprint matches, the locked artifacts can be used instead of
+ * resolving again. The file is only rewritten if its content changes, so that
+ * it can be kept under version control.
+ * </p>
+ */
+final class ResolutionLock {
+
+	/** A single locked artifact. */
+	static final class Entry {
+
+		/** The coordinates: {@code groupId:artifactId:type:classifier:version}. */
+		final String coordinates;
+
+		final String scope;
+
+		final String sha1;
+
+		/** The location, see {@link #relativize}. */
+		final String path;
+
+		Entry(final String coordinates, final String scope, final String sha1,
+			final String path)
+		{
+			this.coordinates = coordinates;
+			this.scope = scope;
+			this.sha1 = sha1;
+			this.path = path;
+		}
+	}
+
+	private static final String HEADER =
+		"# Resolved dependencies, written by the scijava-maven-plugin.";
+
+	private static final String FINGERPRINT = "fingerprint ";
+
+	private static final String REPOSITORY_PREFIX = "repository:";
+
+	private static final String BASEDIR_PREFIX = "basedir:";
+
+	/** Serializes the updates of lockfiles shared by parallel modules. */
+	private static final Object WRITE_LOCK = new Object();
+
+	final String fingerprint;
+
+	final List<Entry> entries;
+
+	ResolutionLock(final String fingerprint, final List<Entry> entries) {
+		this.fingerprint = fingerprint;
+		this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+	}
+
+	/**
+	 * Reads the given resolution from the given lockfile.
+	 *
+	 * @return the lock, or {@code null} if the file does not exist, has no such
+	 *         section or is malformed
+	 */
+	static ResolutionLock read(final File file, final String name)
+		throws IOException
+	{
+		final Map<String, ResolutionLock> locks = readAll(file);
+		return locks == null ? null : locks.get(name);
+	}
+
+	/**
+	 * Writes this lock as the given resolution into the given lockfile, keeping
+	 * the other resolutions recorded there. The file is left alone if it has
+	 * this content already.
+	 */
+	void write(final File file, final String name) throws IOException {
+		synchronized (WRITE_LOCK) {
+			Map<String, ResolutionLock> locks = readAll(file);
+			if (locks == null) locks = new TreeMap<>();
+			locks.put(name, this);
+
+			final StringBuilder content = new StringBuilder();
+			content.append(HEADER).append('\n');
+			for (final Map.Entry<String, ResolutionLock> lock : locks.entrySet()) {
+				content.append('\n');
+				content.append('[').append(lock.getKey()).append("]\n");
+				content.append(FINGERPRINT).append(lock.getValue().fingerprint)
+					.append('\n');
+				for (final Entry entry : lock.getValue().entries) {
+					content.append(entry.coordinates).append(' ').append(entry.scope) //
+						.append(' ').append(entry.sha1).append(' ').append(entry.path) //
+						.append('\n');
+				}
+			}
+			final byte[] bytes = content.toString().getBytes(
+				StandardCharsets.UTF_8);
+			final Path path = file.toPath();
+			if (Files.isRegularFile(path) && //
+				Arrays.equals(bytes, Files.readAllBytes(path)))
+			{
+				return;
+			}
+
+			final File directory = file.getAbsoluteFile().getParentFile();
+			if (!directory.isDirectory() && !directory.mkdirs()) {
+				throw new IOException("Could not make directory: " + directory);
+			}
+			final Path tmp = Files.createTempFile(directory.toPath(), file
+				.getName(), ".tmp");
+			try {
+				Files.write(tmp, bytes);
+				Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+			finally {
+				Files.deleteIfExists(tmp);
+			}
+		}
+	}
+
+	/**
+	 * Reads all resolutions of the given lockfile, sorted by name.
+	 *
+	 * @return the locks, or {@code null} if the file does not exist or is
+	 *         malformed
+	 */
+	private static Map<String, ResolutionLock> readAll(final File file)
+		throws IOException
+	{
+		if (!file.isFile()) return null;
+		final Map<String, ResolutionLock> locks = new TreeMap<>();
+		String name = null;
+		String fingerprint = null;
+		List<Entry> entries = null;
+		for (final String line : Files.readAllLines(file.toPath(),
+			StandardCharsets.UTF_8))
+		{
+			if (line.isEmpty() || line.startsWith("#")) continue;
+			if (line.startsWith("[") && line.endsWith("]")) {
+				if (name != null) {
+					if (fingerprint == null) return null;
+					locks.put(name, new ResolutionLock(fingerprint, entries));
+				}
+				name = line.substring(1, line.length() - 1);
+				fingerprint = null;
+				entries = new ArrayList<>();
+				continue;
+			}
+			if (name == null) return null;
+			if (line.startsWith(FINGERPRINT)) {
+				fingerprint = line.substring(FINGERPRINT.length()).trim();
+				continue;
+			}
+			// NB: The path comes last, as it might contain spaces.
+			final String[] tokens = line.split(" ", 4);
+			if (tokens.length != 4 || tokens[0].split(":", -1).length != 5) {
+				return null;
+			}
+			entries.add(new Entry(tokens[0], tokens[1], tokens[2], tokens[3]));
+		}
+		if (name != null) {
+			if (fingerprint == null) return null;
+			locks.put(name, new ResolutionLock(fingerprint, entries));
+		}
+		return locks;
+	}
+
+	/**
+	 * Records the location of an artifact relative to the local repository, or
+	 * else to the given base directory, if possible, so that the lockfile does
+	 * not depend on where either of them is.
+	 */
+	static String relativize(final File file, final File localRepository,
+		final File basedir)
+	{
+		final Path path = file.getAbsoluteFile().toPath().normalize();
+		if (localRepository != null) {
+			final Path repository = localRepository.getAbsoluteFile().toPath()
+				.normalize();
+			if (path.startsWith(repository)) {
+				return REPOSITORY_PREFIX + portable(repository.relativize(path));
+			}
+		}
+		if (basedir != null) {
+			final Path base = basedir.getAbsoluteFile().toPath().normalize();
+			if (base.getRoot() != null && base.getRoot().equals(path.getRoot())) {
+				return BASEDIR_PREFIX + portable(base.relativize(path));
+			}
+		}
+		return path.toString();
+	}
+
+	/** The inverse of {@link #relativize}. */
+	static File resolve(final String path, final File localRepository,
+		final File basedir)
+	{
+		if (path.startsWith(REPOSITORY_PREFIX) && localRepository != null) {
+			return new File(localRepository, path.substring(REPOSITORY_PREFIX
+				.length()));
+		}
+		if (path.startsWith(BASEDIR_PREFIX) && basedir != null) {
+			return new File(basedir, path.substring(BASEDIR_PREFIX.length()))
+				.toPath().normalize().toFile();
+		}
+		return new File(path);
+	}
+
+	private static String portable(final Path path) {
+		return path.toString().replace(File.separatorChar, '/');
+	}
+}
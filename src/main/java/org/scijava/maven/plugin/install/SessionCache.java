@@ -0,0 +1,87 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Supplier;
+
+import org.apache.maven.execution.MavenSession;
+
+/**
+ * Holds objects for the duration of a Maven session, i.e. across all mojo
+ * executions of all modules of a reactor build.
+ * <p>
+ * The objects are keyed by the session's execution request, which is shared by
+ * the per-module clones of the session, and are held only as long as the
+ * request is alive.
+ * </p>
+ */
+final class SessionCache {
+
+	private static final Map<Object, Map<String, Object>> SESSIONS =
+		new WeakHashMap<>();
+
+	private SessionCache() {
+		// NB: Prevent instantiation of utility class.
+	}
+
+	/**
+	 * Gets the object of the given name for the given session, creating it upon
+	 * first access. Without a session, a fresh object is returned every time.
+	 */
+	@SuppressWarnings("unchecked")
+	static synchronized <T> T get(final MavenSession session, final String name,
+		final Supplier<T> factory)
+	{
+		if (session == null) return factory.get();
+		final Object key = session.getRequest() != null ? session.getRequest()
+			: session;
+		final Map<String, Object> objects = SESSIONS.computeIfAbsent(key,
+			k -> new HashMap<>());
+		return (T) objects.computeIfAbsent(name, n -> factory.get());
+	}
+
+	/**
+	 * Gets the object of the given name for the given session, if it was created
+	 * already.
+	 */
+	@SuppressWarnings("unchecked")
+	static synchronized <T> T peek(final MavenSession session,
+		final String name)
+	{
+		if (session == null) return null;
+		final Object key = session.getRequest() != null ? session.getRequest()
+			: session;
+		final Map<String, Object> objects = SESSIONS.get(key);
+		return objects == null ? null : (T) objects.get(name);
+	}
+}
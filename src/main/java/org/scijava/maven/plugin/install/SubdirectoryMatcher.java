@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Routes artifacts to subdirectories according to a list of
+ * {@link SubdirectoryPattern}s, compiled once up front.
+ * <p>
+ * As with matching the patterns one by one, the first
+ * {@link SubdirectoryPattern} containing a matching pattern wins. Patterns
+ * which merely name a classifier (such as the ones generated by
+ * {@link KnownPlatforms#nativeSubdirectoryPatterns()}) are kept in a hash
+ * table keyed by classifier; only the remaining patterns are tested one by
+ * one.
+ * </p>
+ */
+final class SubdirectoryMatcher {
+
+	private final List<String> subdirectories = new ArrayList<>();
+
+	/** Index of the first subdirectory per literal classifier. */
+	private final Map<String, Integer> classifiers = new HashMap<>();
+
+	/** Non-literal patterns, in order, with their subdirectory index. */
+	private final List<ArtifactPattern> patterns = new ArrayList<>();
+	private final List<Integer> patternIndices = new ArrayList<>();
+
+	SubdirectoryMatcher(final List<SubdirectoryPattern> subdirectoryPatterns) {
+		for (final SubdirectoryPattern subdirectoryPattern : subdirectoryPatterns) {
+			final int index = subdirectories.size();
+			subdirectories.add(subdirectoryPattern.subdirectory);
+			if (subdirectoryPattern.patterns == null) continue;
+			for (final String pattern : subdirectoryPattern.patterns) {
+				final ArtifactPattern compiled = ArtifactPattern.compile(pattern);
+				final String classifier = compiled.literalClassifier();
+				if (classifier != null) classifiers.putIfAbsent(classifier, index);
+				else {
+					patterns.add(compiled);
+					patternIndices.add(index);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the subdirectory into which the given artifact should be installed.
+	 *
+	 * @return The subdirectory, or null if no pattern matches.
+	 */
+	String subdirectory(final Artifact artifact) {
+		return subdirectory(artifact.getGroupId(), artifact.getArtifactId(),
+			artifact.getVersion(), artifact.getClassifier(), artifact.getType());
+	}
+
+	/**
+	 * Gets the subdirectory into which the artifact with the given coordinates
+	 * should be installed.
+	 *
+	 * @return The subdirectory, or null if no pattern matches.
+	 */
+	String subdirectory(final String groupId, final String artifactId,
+		final String version, final String classifier, final String type)
+	{
+		final Integer literalIndex = //
+			classifiers.get(classifier == null ? "" : classifier);
+		for (int i = 0; i < patterns.size(); i++) {
+			final int index = patternIndices.get(i);
+			if (literalIndex != null && index > literalIndex) break;
+			if (patterns.get(i).matches(groupId, artifactId, version, classifier,
+				type))
+			{
+				return subdirectories.get(index);
+			}
+		}
+		return literalIndex == null ? null : subdirectories.get(literalIndex);
+	}
+}
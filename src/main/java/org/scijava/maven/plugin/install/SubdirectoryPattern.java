@@ -29,7 +29,9 @@
 
 package org.scijava.maven.plugin.install;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.apache.maven.artifact.Artifact;
 
@@ -62,56 +64,24 @@ public class SubdirectoryPattern {
 	 */
 	public List<String> patterns;
 
+	/** The compiled form of {@link #patterns}, and a copy of its source. */
+	private List<ArtifactPattern> compiled;
+	private List<String> compiledFrom;
+
 	/** Returns true iff this pattern matches the given artifact. */
 	public boolean matches(final Artifact artifact) {
-		return patterns.stream().anyMatch(pattern -> matches(artifact, pattern));
+		return compiled().stream().anyMatch(pattern -> pattern.matches(artifact
+			.getGroupId(), artifact.getArtifactId(), artifact.getVersion(), artifact
+				.getClassifier(), artifact.getType()));
 	}
 
-	private static boolean matches(final Artifact artifact, final String pattern) {
-		final String[] tokens = pattern.split(":");
-		final String g, a, v, c, p;
-		if (tokens.length == 1) {
-			g = a = v = p = "*";
-			c = tokens[0];
-		}
-		else if (tokens.length == 2) {
-			g = tokens[0];
-			a = tokens[1];
-			v = c = p = "*";
-		}
-		else if (tokens.length == 3) {
-			g = tokens[0];
-			a = tokens[1];
-			v = tokens[2];
-			c = p = "*";
-		}
-		else if (tokens.length == 4) {
-			g = tokens[0];
-			a = tokens[1];
-			v = tokens[2];
-			c = tokens[3];
-			p = "*";
+	private synchronized List<ArtifactPattern> compiled() {
+		// NB: Compare the contents, as the list may be mutated or replaced.
+		if (compiled == null || !compiledFrom.equals(patterns)) {
+			compiled = patterns.stream().map(ArtifactPattern::compile).collect(
+				Collectors.toList());
+			compiledFrom = new ArrayList<>(patterns);
 		}
-		else if (tokens.length == 5) {
-			g = tokens[0];
-			a = tokens[1];
-			v = tokens[2];
-			c = tokens[3];
-			p = tokens[4];
-		}
-		else {
-			throw new IllegalArgumentException("Invalid subdirectory pattern: " + pattern);
-		}
-		return matches(artifact.getGroupId(), g) && //
-			matches(artifact.getArtifactId(), a) && //
-			matches(artifact.getVersion(), v) && //
-			matches(artifact.getClassifier(), c) && //
-			matches(artifact.getType(), p);
-	}
-
-	private static boolean matches(final String string, final String pattern) {
-		final String s = string == null ? "" : string;
-		final String regex = pattern.replaceAll("\\*", ".*");
-		return s.matches(regex);
+		return compiled;
 	}
 }
@@ -0,0 +1,422 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.handler.manager.DefaultArtifactHandlerManager;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.shared.artifact.ArtifactCoordinate;
+import org.apache.maven.shared.artifact.filter.resolve.TransformableFilter;
+import org.apache.maven.shared.artifact.resolve.ArtifactResolver;
+import org.apache.maven.shared.artifact.resolve.ArtifactResult;
+import org.apache.maven.shared.dependencies.DefaultDependableCoordinate;
+import org.apache.maven.shared.dependencies.DependableCoordinate;
+import org.apache.maven.shared.dependencies.resolve.DependencyResolver;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AbstractInstallMojoTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void detectsIJ1Plugins() throws IOException {
+		final AbstractInstallMojo mojo = mojo();
+		assertTrue(isIJ1Plugin(mojo, jar("Fancy_Plugin-1.0.jar", "plugins.config",
+			"Fancy_Plugin.class")));
+		assertFalse(isIJ1Plugin(mojo, jar("fancy_library-1.0.jar",
+			"Fancy_Plugin.class", "META-INF/plugins.config")));
+		// NB: Without an underscore, the .jar file is not even opened.
+		assertFalse(isIJ1Plugin(mojo, jar("Fancy-1.0.jar", "plugins.config")));
+		assertFalse(isIJ1Plugin(mojo, new File(folder.getRoot(), "Missing_.jar")));
+	}
+
+	@Test
+	public void cachesIJ1PluginDetection() throws IOException {
+		final AbstractInstallMojo mojo = mojo();
+		final File jar = jar("Fancy_Plugin-1.0.jar", "plugins.config");
+		final long lastModified = jar.lastModified();
+		assertTrue(isIJ1Plugin(mojo, jar));
+
+		// Unchanged size and mtime: the cached answer is used.
+		final byte[] garbage = new byte[(int) jar.length()];
+		Arrays.fill(garbage, (byte) 'x');
+		Files.write(jar.toPath(), garbage);
+		assertTrue(jar.setLastModified(lastModified));
+		assertTrue(isIJ1Plugin(mojo, jar));
+
+		// Changed mtime: the .jar file is looked at again.
+		assertTrue(jar.setLastModified(lastModified - 10000));
+		assertFalse(isIJ1Plugin(mojo, jar));
+	}
+
+	@Test
+	public void sameVersionIsNotAnOtherVersion() throws IOException {
+		final File source = jar("repo/foo-1.0.jar", "Foo.class");
+		final File appDir = folder.newFolder("Fiji.app");
+		final File jars = new File(appDir, "jars");
+		assertTrue(jars.mkdirs());
+		final File target = new File(jars, "foo-1.0.jar");
+		Files.copy(source.toPath(), target.toPath());
+		assertTrue(target.setLastModified(source.lastModified() + 10000));
+		final File older = new File(jars, "foo-0.9.jar");
+		Files.copy(source.toPath(), older.toPath());
+
+		final List<String> messages = new ArrayList<>();
+		final AbstractInstallMojo mojo = mojo();
+		mojo.setLog(new SystemStreamLog() {
+
+			@Override
+			public void info(final CharSequence content) {
+				messages.add(content.toString());
+			}
+		});
+		mojo.upToDateCheck = AbstractInstallMojo.UpToDateCheck.timestamp;
+		mojo.installArtifact(artifact("foo", "1.0", source), appDir, "jars",
+			false, AbstractInstallMojo.OtherVersions.older);
+
+		// The older version is deleted, but the installed file itself is kept
+		// as up to date, instead of being deleted and copied again.
+		assertFalse(older.exists());
+		assertTrue(target.exists());
+		assertEquals(Arrays.asList("Deleted overridden foo-0.9.jar",
+			"Dependency foo-1.0.jar is already there; skipping"), messages);
+	}
+
+	@Test
+	public void resolvesOnlyTheArtifact() throws Exception {
+		final List<ArtifactCoordinate> requested = new ArrayList<>();
+		final Artifact resolved = artifact("foo", "1.0", null);
+		final AbstractInstallMojo mojo = mojo();
+		mojo.artifactHandlerManager = new DefaultArtifactHandlerManager() {
+
+			@Override
+			public ArtifactHandler getArtifactHandler(final String type) {
+				final DefaultArtifactHandler handler = new DefaultArtifactHandler(type);
+				handler.setExtension("test-jar".equals(type) ? "jar" : type);
+				return handler;
+			}
+		};
+		mojo.artifactResolver = new ArtifactResolver() {
+
+			@Override
+			public ArtifactResult resolveArtifact(
+				final ProjectBuildingRequest buildingRequest, final Artifact artifact)
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public ArtifactResult resolveArtifact(
+				final ProjectBuildingRequest buildingRequest,
+				final ArtifactCoordinate coordinate)
+			{
+				requested.add(coordinate);
+				return () -> resolved;
+			}
+		};
+		// NB: No dependency resolver is set; using it would fail.
+		final DefaultDependableCoordinate coordinate =
+			new DefaultDependableCoordinate();
+		coordinate.setGroupId("org.example");
+		coordinate.setArtifactId("foo");
+		coordinate.setVersion("1.0");
+		coordinate.setClassifier("tests");
+		coordinate.setType("test-jar");
+
+		final ArtifactResult result = mojo.resolveArtifact(
+			new DefaultProjectBuildingRequest(), coordinate);
+		assertSame(resolved, result.getArtifact());
+		assertEquals(1, requested.size());
+		final ArtifactCoordinate artifactCoordinate = requested.get(0);
+		assertEquals("org.example", artifactCoordinate.getGroupId());
+		assertEquals("foo", artifactCoordinate.getArtifactId());
+		assertEquals("1.0", artifactCoordinate.getVersion());
+		assertEquals("tests", artifactCoordinate.getClassifier());
+		assertEquals("jar", artifactCoordinate.getExtension());
+
+		// Without a type, a plain .jar file is resolved.
+		coordinate.setClassifier(null);
+		coordinate.setType(null);
+		mojo.resolveArtifact(new DefaultProjectBuildingRequest(), coordinate);
+		assertEquals("jar", requested.get(1).getExtension());
+		assertNull(requested.get(1).getClassifier());
+	}
+
+	@Test
+	public void cachesResolvedDependencies() throws Exception {
+		final List<DependableCoordinate> resolved = new ArrayList<>();
+		final AbstractInstallMojo mojo = mojo();
+		mojo.session = new MavenSession(null, null,
+			new DefaultMavenExecutionRequest(), null);
+		mojo.dependencyResolver = new DependencyResolver() {
+
+			@Override
+			public Iterable<ArtifactResult> resolveDependencies(
+				final ProjectBuildingRequest buildingRequest,
+				final DependableCoordinate coordinate,
+				final TransformableFilter filter)
+			{
+				resolved.add(coordinate);
+				final Artifact artifact = artifact(coordinate.getArtifactId(),
+					coordinate.getVersion(), null);
+				return Collections.singletonList(() -> artifact);
+			}
+
+			@Override
+			public Iterable<ArtifactResult> resolveDependencies(
+				final ProjectBuildingRequest buildingRequest, final Model model,
+				final TransformableFilter filter)
+			{
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Iterable<ArtifactResult> resolveDependencies(
+				final ProjectBuildingRequest buildingRequest,
+				final Collection<Dependency> dependencies,
+				final Collection<Dependency> managedDependencies,
+				final TransformableFilter filter)
+			{
+				throw new UnsupportedOperationException();
+			}
+		};
+		final ProjectBuildingRequest request = new DefaultProjectBuildingRequest();
+		request.setRemoteRepositories(Collections.singletonList(repository(
+			"https://repo.example.org/")));
+		final DefaultDependableCoordinate coordinate =
+			new DefaultDependableCoordinate();
+		coordinate.setGroupId("org.example");
+		coordinate.setArtifactId("foo");
+		coordinate.setVersion("1.0");
+		coordinate.setType("jar");
+
+		// The same coordinate, filter and repositories: resolved only once.
+		final Iterable<ArtifactResult> first = mojo.resolveDependencies(request,
+			coordinate, true);
+		assertSame(first, mojo.resolveDependencies(request, coordinate, true));
+		assertEquals(1, resolved.size());
+
+		// Another optional-dependency filter is another resolution.
+		mojo.resolveDependencies(request, coordinate, false);
+		assertEquals(2, resolved.size());
+
+		// So are other repositories...
+		final ProjectBuildingRequest other = new DefaultProjectBuildingRequest();
+		other.setRemoteRepositories(Collections.singletonList(repository(
+			"https://other.example.org/")));
+		mojo.resolveDependencies(other, coordinate, true);
+		assertEquals(3, resolved.size());
+
+		// ... and another version.
+		coordinate.setVersion("1.1");
+		mojo.resolveDependencies(request, coordinate, true);
+		assertEquals(4, resolved.size());
+		coordinate.setVersion("1.0");
+		assertSame(first, mojo.resolveDependencies(request, coordinate, true));
+		assertEquals(4, resolved.size());
+	}
+
+	@Test
+	public void lockfileDependsOnlyOnReferencedProperties() {
+		final String pom = "<project><properties>" +
+			"<ij.version>${imagej1.version}</ij.version></properties>" +
+			"<profiles><profile><activation><property><name>!release</name>" +
+			"</property></activation></profile></profiles></project>";
+		assertTrue(AbstractInstallMojo.refersTo(pom, "imagej1.version"));
+		assertTrue(AbstractInstallMojo.refersTo(pom, "release"));
+		assertFalse(AbstractInstallMojo.refersTo(pom, "skipTests"));
+		assertFalse(AbstractInstallMojo.refersTo(pom, "imagej1"));
+	}
+
+	@Test
+	public void detectsIJ1PluginDirectories() throws IOException {
+		final AbstractInstallMojo mojo = mojo();
+		final File classes = folder.newFolder("Fancy_Plugin", "target", "classes");
+		assertFalse(mojo.isIJ1Plugin(classes, "Fancy_Plugin-1.0.jar"));
+		Files.write(new File(classes, "plugins.config").toPath(), new byte[0]);
+		// NB: The name is that of the jar the directory stands in for.
+		assertTrue(mojo.isIJ1Plugin(classes, "Fancy_Plugin-1.0.jar"));
+		assertFalse(mojo.isIJ1Plugin(classes, "fancy-1.0.jar"));
+	}
+
+	@Test
+	public void linksBuildOutputDirectories() throws IOException {
+		final File classes = folder.newFolder("foo", "target", "classes");
+		Files.write(new File(classes, "Foo.class").toPath(), new byte[] { 1 });
+		final File appDir = folder.newFolder("Fiji.app");
+		final File jars = new File(appDir, "jars");
+		assertTrue(jars.mkdirs());
+		final File older = new File(jars, "foo-0.9.jar");
+		Files.write(older.toPath(), new byte[] { 0 });
+
+		final List<String> messages = new ArrayList<>();
+		final AbstractInstallMojo mojo = mojo();
+		mojo.setLog(new SystemStreamLog() {
+
+			@Override
+			public void info(final CharSequence content) {
+				messages.add(content.toString());
+			}
+		});
+		mojo.installMode = AbstractInstallMojo.InstallMode.copy;
+		mojo.upToDateCheck = AbstractInstallMojo.UpToDateCheck.checksum;
+		final Artifact artifact = artifact("foo", "1.0-SNAPSHOT", classes);
+		mojo.installArtifact(artifact, appDir, false,
+			AbstractInstallMojo.OtherVersions.older);
+
+		// The link is named like the jar, and replaces other versions.
+		final Path link = new File(jars, "foo-1.0-SNAPSHOT.jar").toPath();
+		assertTrue(Files.isSymbolicLink(link));
+		assertTrue(Files.isSameFile(classes.toPath(), link));
+		assertFalse(older.exists());
+
+		// The link is up to date, even with the checksum check.
+		messages.clear();
+		mojo.installArtifact(artifact, appDir, false,
+			AbstractInstallMojo.OtherVersions.older);
+		assertEquals(Arrays.asList(
+			"Dependency foo-1.0-SNAPSHOT.jar is already there; skipping"),
+			messages);
+
+		// The packaged jar replaces the link, without writing through it.
+		final File jar = jar("repo/foo-1.0-SNAPSHOT.jar", "Foo.class");
+		mojo.installArtifact(artifact("foo", "1.0-SNAPSHOT", jar), appDir, true,
+			AbstractInstallMojo.OtherVersions.older);
+		assertFalse(Files.isSymbolicLink(link));
+		assertEquals(jar.length(), Files.size(link));
+		assertTrue(new File(classes, "Foo.class").isFile());
+	}
+
+	@Test
+	public void createsUniqueQuarantines() throws IOException {
+		final File appDir = folder.newFolder("app");
+		final Path first = AbstractInstallMojo.createQuarantine(appDir,
+			"20250101-120000");
+		final Path second = AbstractInstallMojo.createQuarantine(appDir,
+			"20250101-120000");
+		assertEquals("20250101-120000", first.getFileName().toString());
+		assertEquals("20250101-120000-2", second.getFileName().toString());
+		assertTrue(Files.isDirectory(second));
+	}
+
+	@Test
+	public void doesNotSyncIgnoredDependencies() throws IOException {
+		final AbstractInstallMojo mojo = mojo();
+		mojo.sync = AbstractInstallMojo.SyncMode.delete;
+		mojo.ignoreDependencies = true;
+		final InstallPlan plan = new InstallPlan();
+		mojo.planSync(plan);
+		assertTrue(plan.isEmpty());
+	}
+
+	private static boolean isIJ1Plugin(final AbstractInstallMojo mojo,
+		final File file)
+	{
+		return mojo.isIJ1Plugin(file, file.getName());
+	}
+
+	private static ArtifactRepository repository(final String url) {
+		return new MavenArtifactRepository("central", url,
+			new DefaultRepositoryLayout(), new ArtifactRepositoryPolicy(),
+			new ArtifactRepositoryPolicy());
+	}
+
+	private static Artifact artifact(final String artifactId,
+		final String version, final File file)
+	{
+		final Artifact artifact = new DefaultArtifact("org.example", artifactId,
+			version, "compile", "jar", null, new DefaultArtifactHandler("jar"));
+		artifact.setFile(file);
+		return artifact;
+	}
+
+	private static AbstractInstallMojo mojo() {
+		return new AbstractInstallMojo() {
+
+			@Override
+			public void execute() {
+				// NB: Only the helpers are tested.
+			}
+		};
+	}
+
+	private File jar(final String name, final String... entries)
+		throws IOException
+	{
+		final File file = new File(folder.getRoot(), name);
+		file.getParentFile().mkdirs();
+		try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(
+			file)))
+		{
+			for (final String entry : entries) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.write(entry.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+		return file;
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AppDirectoryIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void keys() {
+		assertEquals(Arrays.asList("foo", "foo-bar", "foo-bar-1", "foo-bar-1.2"),
+			AppDirectoryIndex.keys("foo-bar-1.2.jar"));
+	}
+
+	@Test
+	public void candidates() throws IOException {
+		final Path jars = folder.newFolder("jars").toPath();
+		final Path foo = Files.createFile(jars.resolve("foo-1.0.jar"));
+		final Path fooBar = Files.createFile(jars.resolve("foo-bar-2.0.jar"));
+		Files.createFile(jars.resolve("food-1.0.jar"));
+
+		final AppDirectoryIndex index = new AppDirectoryIndex();
+		assertEquals(Arrays.asList(foo, fooBar), index.candidates(jars, "foo"));
+		assertEquals(Arrays.asList(fooBar), index.candidates(jars, "foo-bar"));
+		assertTrue(index.candidates(jars, "bar").isEmpty());
+	}
+
+	@Test
+	public void files() throws IOException {
+		final Path jars = folder.newFolder("jars").toPath();
+		final Path foo = Files.createFile(jars.resolve("foo-1.0.jar"));
+		final Path fooBar = Files.createFile(jars.resolve("foo-bar-2.0.jar"));
+
+		final AppDirectoryIndex index = new AppDirectoryIndex();
+		assertEquals(Arrays.asList(foo, fooBar), index.files(jars));
+		index.removed(foo);
+		assertEquals(Arrays.asList(fooBar), index.files(jars));
+	}
+
+	@Test
+	public void updates() throws IOException {
+		final Path jars = folder.newFolder("jars").toPath();
+		final Path old = Files.createFile(jars.resolve("foo-1.0.jar"));
+
+		final AppDirectoryIndex index = new AppDirectoryIndex();
+		assertEquals(Arrays.asList(old), index.candidates(jars, "foo"));
+
+		final Path latest = jars.resolve("foo-1.1.jar");
+		index.removed(old);
+		index.added(latest);
+		assertEquals(Arrays.asList(latest), index.candidates(jars, "foo"));
+	}
+
+	@Test
+	public void missingDirectory() throws IOException {
+		final Path missing = folder.getRoot().toPath().resolve("plugins");
+		final AppDirectoryIndex index = new AppDirectoryIndex();
+		assertTrue(index.candidates(missing, "foo").isEmpty());
+		index.added(missing.resolve("foo-1.0.jar"));
+		assertEquals(Arrays.asList(missing.resolve("foo-1.0.jar")), index
+			.candidates(missing, "foo"));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class ArtifactFileNameTest {
+
+	@Test
+	public void mainArtifact() {
+		assertEquals("1.2.3", version("lib-1.2.3.jar", "lib", null));
+		assertEquals("1.2.3-beta-1", version("lib-1.2.3-beta-1.jar", "lib", null));
+		assertEquals("", version("lib.jar", "lib", null));
+		assertEquals("0abc123", version("lib-0abc123.jar", "lib", null));
+		assertEquals("abc1234", version("lib-abc1234.jar", "lib", null));
+		assertNull(version("lib-1.2.3-natives-macosx.jar", "lib", null));
+		assertNull(version("lib-bar-1.2.3.jar", "lib", null));
+		assertNull(version("lib-1.2.3.zip", "lib", null));
+		assertNull(version("library-1.2.3.jar", "lib", null));
+	}
+
+	@Test
+	public void classifiedArtifact() {
+		assertEquals("3.3.1", version("lwjgl-3.3.1-natives-linux.jar", "lwjgl",
+			"natives-linux"));
+		assertEquals("3.3.1", version("lwjgl-3.3.1-sources.jar", "lwjgl",
+			"sources"));
+		assertEquals("", version("lwjgl-natives-linux.jar", "lwjgl",
+			"natives-linux"));
+		assertNull(version("lwjgl-3.3.1.jar", "lwjgl", "natives-linux"));
+		assertNull(version("lwjgl-3.3.1-natives-windows.jar", "lwjgl",
+			"natives-linux"));
+	}
+
+	@Test
+	public void sameAsRegex() {
+		final List<String> classifiers = new ArrayList<>(Arrays.asList(null, "",
+			"sources", "natives-linux", "linux-x86_64", "tests"));
+		final List<String> names = new ArrayList<>();
+		for (final String version : Arrays.asList("", "-1", "-1.0", "-1.0-SNAPSHOT",
+			"-1.2.3-beta-1", "-abcde", "-abcd", "-abcdef0", "-Abcdef", "-fe1-2",
+			"-1-linux", "-", "--1", "-1-"))
+		{
+			for (final String classifier : Arrays.asList("", "-sources",
+				"-natives-linux", "-linux-x86_64", "-natives-linux-x86_64", "-tests",
+				"-linux", "-foo", "-"))
+			{
+				for (final String type : Arrays.asList(".jar", ".zip", "")) {
+					names.add("lib" + version + classifier + type);
+					names.add("lib-x" + version + classifier + type);
+				}
+			}
+		}
+		for (final String name : names) {
+			for (final String classifier : classifiers) {
+				assertEquals(name + " / " + classifier, regex(name, "lib", classifier,
+					"jar"), version(name, "lib", classifier));
+			}
+		}
+	}
+
+	private static String version(final String fileName, final String artifactId,
+		final String classifier)
+	{
+		return ArtifactFileName.version(fileName, artifactId, classifier, "jar");
+	}
+
+	/** The regex which was formerly used to parse file names. */
+	private static String regex(final String fileName, final String artifactId,
+		final String rawClassifier, final String type)
+	{
+		final String versionPattern = "(-[0-9].*?|-[0-9a-f]{5}[0-9a-f]*)?";
+		final String classifier = rawClassifier == null ? "" : rawClassifier;
+		final List<String> classifiers = new ArrayList<>();
+		classifiers.add(classifier);
+		classifiers.addAll(KnownPlatforms.nativeClassifiers());
+		final String[] quotedClassifiers = classifiers.stream() //
+			.map(c -> c.isEmpty() ? "" : "-" + Pattern.quote(c)) //
+			.toArray(String[]::new);
+		final String classifierPattern = //
+			"(" + String.join("|", quotedClassifiers) + ")?";
+		final Pattern pattern = Pattern.compile(Pattern.quote(artifactId) +
+			versionPattern + classifierPattern + Pattern.quote("." + type));
+
+		final Matcher m = pattern.matcher(fileName);
+		if (!m.matches()) return null;
+		if (!classifier.equals(trimLeadingDash(m.group(2)))) return null;
+		return trimLeadingDash(m.group(1));
+	}
+
+	private static String trimLeadingDash(final String s) {
+		if (s == null) return "";
+		if (s.startsWith("-")) return s.substring(1);
+		return s;
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ArtifactPatternTest {
+
+	@Test
+	public void matches() {
+		final ArtifactPattern pattern = ArtifactPattern.compile(
+			"org.jogamp.*:*:*:natives-*");
+		assertTrue(pattern.matches("org.jogamp.gluegen", "gluegen-rt", "2.3.2",
+			"natives-linux-amd64", "jar"));
+		assertFalse(pattern.matches("org.jogamp.gluegen", "gluegen-rt", "2.3.2",
+			null, "jar"));
+		assertFalse(pattern.matches("org.scijava", "gluegen-rt", "2.3.2",
+			"natives-linux-amd64", "jar"));
+	}
+
+	@Test
+	public void literalGroupAndArtifact() {
+		assertArrayEquals(new String[] { "org.jogamp.gluegen", "gluegen-rt" },
+			ArtifactPattern.compile("org.jogamp.gluegen:gluegen-rt")
+				.literalGroupAndArtifact());
+		assertArrayEquals(new String[] { "org.jogamp.jogl", "*" }, ArtifactPattern
+			.compile("org.jogamp.jogl:*:*").literalGroupAndArtifact());
+		assertNull(ArtifactPattern.compile("org.jogamp.*:*")
+			.literalGroupAndArtifact());
+		assertNull(ArtifactPattern.compile("org.jogamp.jogl:jogl-all:2.3.2")
+			.literalGroupAndArtifact());
+		assertNull(ArtifactPattern.compile("natives-linux-amd64")
+			.literalGroupAndArtifact());
+	}
+}
@@ -0,0 +1,84 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChecksumsTest {
+
+	private static final String HELLO_SHA1 =
+		"aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void sha1() throws IOException {
+		assertEquals(HELLO_SHA1, Checksums.sha1(write("foo-1.0.jar", "hello")));
+	}
+
+	@Test
+	public void sidecar() throws IOException {
+		final File jar = write("foo-1.0.jar", "hello");
+		assertNull(Checksums.sidecarSha1(jar));
+
+		write("foo-1.0.jar.sha1", HELLO_SHA1.toUpperCase() + "  foo-1.0.jar\n");
+		assertEquals(HELLO_SHA1, Checksums.sidecarSha1(jar));
+
+		write("foo-1.0.jar.sha1", "not a checksum");
+		assertNull(Checksums.sidecarSha1(jar));
+	}
+
+	@Test
+	public void staleSidecar() throws IOException {
+		final File jar = write("foo-1.0.jar", "hello");
+		final File sidecar = write("foo-1.0.jar.sha1", HELLO_SHA1);
+		sidecar.setLastModified(jar.lastModified() - 24 * 60 * 60 * 1000);
+		assertNull(Checksums.sidecarSha1(jar));
+	}
+
+	private File write(final String name, final String content)
+		throws IOException
+	{
+		final File file = new File(folder.getRoot(), name);
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
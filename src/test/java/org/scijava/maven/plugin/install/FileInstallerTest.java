@@ -0,0 +1,162 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scijava.maven.plugin.install.AbstractInstallMojo.InstallMode;
+
+public class FileInstallerTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void copy() throws IOException {
+		final Path source = write("repo/foo-1.0.jar", "hello");
+		final Path target = path("app/jars/foo-1.0.jar");
+		assertEquals(InstallMode.copy, new FileInstaller(InstallMode.copy)
+			.install(source, target, false));
+		assertEquals("hello", read(target));
+		assertFalse(Files.isSameFile(source, target));
+	}
+
+	@Test
+	public void hardlink() throws IOException {
+		final Path source = write("repo/foo-1.0.jar", "hello");
+		final Path target = path("app/jars/foo-1.0.jar");
+		final InstallMode mode = new FileInstaller(InstallMode.hardlink).install(
+			source, target, false);
+		assertEquals("hello", read(target));
+		if (mode == InstallMode.hardlink) {
+			assertTrue(Files.isSameFile(source, target));
+			assertFalse(Files.isSymbolicLink(target));
+		}
+	}
+
+	@Test
+	public void symlink() throws IOException {
+		final Path source = write("repo/foo-1.0.jar", "hello");
+		final Path target = path("app/jars/foo-1.0.jar");
+		final InstallMode mode = new FileInstaller(InstallMode.symlink).install(
+			source, target, false);
+		assertEquals("hello", read(target));
+		if (mode == InstallMode.symlink) assertTrue(Files.isSymbolicLink(target));
+	}
+
+	@Test
+	public void neverWritesThroughLinks() throws IOException {
+		final Path source = write("repo/foo-1.0.jar", "hello");
+		final Path target = path("app/jars/foo-1.0.jar");
+		new FileInstaller(InstallMode.symlink).install(source, target, false);
+
+		final Path other = write("repo/foo-1.0-other.jar", "goodbye");
+		new FileInstaller(InstallMode.copy).install(other, target, false);
+		assertEquals("goodbye", read(target));
+		assertEquals("hello", read(source));
+	}
+
+	@Test
+	public void linksDirectories() throws IOException {
+		final Path classes = write("foo/target/classes/Foo.class", "classes")
+			.getParent();
+		final Path target = path("app/jars/foo-1.0-SNAPSHOT.jar");
+		write("app/jars/foo-1.0-SNAPSHOT.jar", "jar");
+		assertEquals(InstallMode.symlink, new FileInstaller(InstallMode.copy)
+			.install(classes, target, false));
+		assertTrue(Files.isSymbolicLink(target));
+		assertEquals("classes", read(target.resolve("Foo.class")));
+
+		// NB: Replacing the link must not touch the linked directory.
+		final Path jar = write("repo/foo-1.0-SNAPSHOT.jar", "jar");
+		new FileInstaller(InstallMode.copy).install(jar, target, false);
+		assertEquals("jar", read(target));
+		assertTrue(Files.exists(classes.resolve("Foo.class")));
+	}
+
+	@Test
+	public void replacesInstalledDirectories() throws IOException {
+		final Path jar = write("repo/foo-1.0-SNAPSHOT.jar", "jar");
+		final Path target = path("app/jars/foo-1.0-SNAPSHOT.jar");
+		final Path classes = write("app/jars/foo-1.0-SNAPSHOT.jar/Foo.class",
+			"classes").getParent();
+		final Path linked = write("elsewhere/Bar.class", "linked");
+		Files.createSymbolicLink(classes.resolve("bar"), linked.getParent());
+
+		new FileInstaller(InstallMode.copy).install(jar, target, true);
+		assertEquals("jar", read(target));
+		// NB: Links inside the directory are not followed.
+		assertEquals("linked", read(linked));
+	}
+
+	@Test
+	public void keepsForeignDirectories() throws IOException {
+		final Path jar = write("repo/foo-1.0-SNAPSHOT.jar", "jar");
+		final Path target = path("app/jars/foo-1.0-SNAPSHOT.jar");
+		final Path classes = write("app/jars/foo-1.0-SNAPSHOT.jar/Foo.class",
+			"classes");
+		try {
+			new FileInstaller(InstallMode.copy).install(jar, target, false);
+			fail("Replaced a directory which was not installed");
+		}
+		catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(
+				"not installed by this plugin"));
+		}
+		assertEquals("classes", read(classes));
+	}
+
+	private Path write(final String name, final String content)
+		throws IOException
+	{
+		final Path path = path(name);
+		Files.createDirectories(path.getParent());
+		return Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private Path path(final String name) {
+		return folder.getRoot().toPath().resolve(name);
+	}
+
+	private static String read(final Path path) throws IOException {
+		return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.repository.ArtifactRepositoryPolicy;
+import org.apache.maven.artifact.repository.MavenArtifactRepository;
+import org.apache.maven.artifact.repository.layout.DefaultRepositoryLayout;
+import org.apache.maven.plugin.MojoFailureException;
+import org.junit.Test;
+
+public class InstallArtifactMojoTest {
+
+	@Test
+	public void validUpdatePolicies() throws MojoFailureException {
+		for (final String policy : new String[] { "always", "daily", "never",
+			"interval:60" })
+		{
+			assertEquals(policy, InstallArtifactMojo.validateUpdatePolicy(policy));
+		}
+	}
+
+	@Test
+	public void invalidUpdatePolicies() {
+		for (final String policy : new String[] { null, "", "hourly", "interval",
+			"interval:", "interval:soon", "Always" })
+		{
+			try {
+				InstallArtifactMojo.validateUpdatePolicy(policy);
+				fail("Accepted update policy " + policy);
+			}
+			catch (final MojoFailureException e) {
+				assertTrue(e.getMessage().startsWith("Invalid update policy"));
+			}
+		}
+	}
+
+	@Test
+	public void checksumPolicies() throws MojoFailureException {
+		for (final String policy : new String[] { "fail", "warn", "ignore" }) {
+			assertEquals(policy, InstallArtifactMojo.validateChecksumPolicy(policy));
+		}
+		for (final String policy : new String[] { null, "", "strict", "Warn" }) {
+			try {
+				InstallArtifactMojo.validateChecksumPolicy(policy);
+				fail("Accepted checksum policy " + policy);
+			}
+			catch (final MojoFailureException e) {
+				assertTrue(e.getMessage().startsWith("Invalid checksum policy"));
+			}
+		}
+	}
+
+	@Test
+	public void withPolicyKeepsEnabledFlags() {
+		final ArtifactRepository releasesOnly = new MavenArtifactRepository(
+			"releases", "https://repo.example.org/", new DefaultRepositoryLayout(),
+			new ArtifactRepositoryPolicy(false, "daily", "fail"),
+			new ArtifactRepositoryPolicy(true, "daily", "fail"));
+		final ArtifactRepositoryPolicy policy = new ArtifactRepositoryPolicy(true,
+			"never", "ignore");
+
+		final ArtifactRepository copy = InstallArtifactMojo.withPolicy(
+			releasesOnly, policy);
+		assertNotSame(releasesOnly, copy);
+		assertEquals("releases", copy.getId());
+		assertEquals("https://repo.example.org/", copy.getUrl());
+		assertFalse(copy.getSnapshots().isEnabled());
+		assertTrue(copy.getReleases().isEnabled());
+		assertEquals("never", copy.getSnapshots().getUpdatePolicy());
+		assertEquals("never", copy.getReleases().getUpdatePolicy());
+		assertEquals("ignore", copy.getReleases().getChecksumPolicy());
+
+		// The original is left alone.
+		assertEquals("daily", releasesOnly.getReleases().getUpdatePolicy());
+	}
+}
@@ -0,0 +1,107 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class InstallManifestTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void recordsInstalledArtifacts() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final Artifact artifact = artifact("foo", "1.0");
+		final File target = write(new File(appDir, "jars/foo-1.0.jar"), "foo");
+
+		final InstallManifest manifest = new InstallManifest(appDir);
+		assertFalse(manifest.isInstalled(artifact));
+		manifest.put(artifact, target, null);
+		assertTrue(manifest.isInstalled(artifact));
+		manifest.save();
+
+		final InstallManifest reloaded = new InstallManifest(appDir);
+		assertTrue(reloaded.isInstalled(artifact));
+		assertFalse(reloaded.isInstalled(artifact("foo", "1.1")));
+
+		reloaded.remove(target.toPath());
+		assertFalse(reloaded.isInstalled(artifact));
+	}
+
+	@Test
+	public void detectsChanges() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final Artifact artifact = artifact("foo", "1.0");
+		final File target = write(new File(appDir, "jars/foo-1.0.jar"), "foo");
+
+		final InstallManifest manifest = new InstallManifest(appDir);
+		manifest.put(artifact, target, null);
+		write(target, "changed");
+		assertFalse(manifest.isInstalled(artifact));
+		assertNull(manifest.get(target));
+
+		manifest.put(artifact, target, null);
+		write(artifact.getFile(), "rebuilt");
+		assertFalse(manifest.isInstalled(artifact));
+	}
+
+	private Artifact artifact(final String artifactId, final String version)
+		throws IOException
+	{
+		final Artifact artifact = new DefaultArtifact("org.example", artifactId,
+			version, "compile", "jar", null, new DefaultArtifactHandler("jar"));
+		artifact.setFile(write(new File(folder.getRoot(), "repo/" + artifactId +
+			"-" + version + ".jar"), artifactId + version));
+		return artifact;
+	}
+
+	private static File write(final File file, final String content)
+		throws IOException
+	{
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+public class InstallPipelineTest {
+
+	@Test
+	public void runsAllTasks() throws IOException {
+		final List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+		try (final InstallPipeline pipeline = new InstallPipeline(4)) {
+			for (int i = 0; i < 20; i++) {
+				final int index = i;
+				pipeline.submit(() -> {
+					sleep(index % 3);
+					done.add(index);
+				});
+			}
+			pipeline.await();
+		}
+		final List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < 20; i++) expected.add(i);
+		Collections.sort(done);
+		assertEquals(expected, done);
+	}
+
+	@Test
+	public void singleThreadRunsInline() throws IOException {
+		final List<String> order = new ArrayList<>();
+		try (final InstallPipeline pipeline = new InstallPipeline(1)) {
+			pipeline.submit(() -> order.add("a"));
+			pipeline.submit(() -> order.add("b"));
+			assertEquals(Arrays.asList("a", "b"), order);
+			pipeline.await();
+		}
+	}
+
+	@Test
+	public void failureIsPropagated() {
+		try (final InstallPipeline pipeline = new InstallPipeline(2)) {
+			pipeline.submit(() -> {
+				throw new IOException("Disk full");
+			});
+			pipeline.submit(() -> {});
+			pipeline.await();
+			fail("Expected an IOException");
+		}
+		catch (final IOException e) {
+			assertEquals("Disk full", e.getMessage());
+		}
+	}
+
+	private static void sleep(final long millis) {
+		try {
+			Thread.sleep(millis);
+		}
+		catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
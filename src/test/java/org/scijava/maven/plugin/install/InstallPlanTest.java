@@ -0,0 +1,125 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.scijava.maven.plugin.install.InstallPlan.Action;
+
+public class InstallPlanTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void lastOperationWins() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final Path existing = Files.createDirectories(appDir.toPath().resolve(
+			"jars")).resolve("foo-1.0.jar");
+		Files.createFile(existing);
+		final Path planned = existing.resolveSibling("foo-1.1.jar");
+
+		final InstallPlan plan = new InstallPlan();
+		plan.copy(artifact("foo", "1.0"), appDir, existing);
+		plan.copy(artifact("foo", "1.1"), appDir, planned);
+		plan.delete(appDir, existing);
+		plan.delete(appDir, planned);
+		plan.copy(artifact("foo", "1.2"), appDir, existing.resolveSibling(
+			"foo-1.2.jar"));
+
+		// the existing file needs deleting; the planned one is not copied at all
+		assertEquals(2, plan.operations().size());
+		assertEquals(Integer.valueOf(1), plan.counts().get(Action.delete));
+		assertEquals(existing, plan.operations(Action.delete).get(0).target);
+		assertEquals("copy       jars/foo-1.2.jar", plan.operations(Action.copy)
+			.get(0).toString());
+	}
+
+	@Test
+	public void sortsByTarget() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final Path jars = appDir.toPath().resolve("jars");
+		final Path plugins = appDir.toPath().resolve("plugins");
+
+		final InstallPlan plan = new InstallPlan();
+		plan.copy(artifact("b", "1.0"), appDir, jars.resolve("b-1.0.jar"));
+		plan.copy(artifact("c", "1.0"), appDir, plugins.resolve("c-1.0.jar"));
+		plan.skip(artifact("d", "1.0"), appDir, jars.resolve("d-1.0.jar"));
+		plan.copy(artifact("a", "1.0"), appDir, jars.resolve("a-1.0.jar"));
+
+		final List<String> copies = new ArrayList<>();
+		for (final InstallPlan.Operation operation : plan.operations(
+			Action.copy))
+		{
+			copies.add(appDir.toPath().relativize(operation.target).toString()
+				.replace(File.separatorChar, '/'));
+		}
+		assertEquals("[jars/a-1.0.jar, jars/b-1.0.jar, plugins/c-1.0.jar]",
+			copies.toString());
+		assertTrue(plan.operations(Action.superseded).isEmpty());
+	}
+
+	@Test
+	public void quarantine() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final Path jars = appDir.toPath().resolve("jars");
+
+		final InstallPlan plan = new InstallPlan();
+		plan.copy(artifact("a", "1.0"), appDir, jars.resolve("a-1.0.jar"));
+		plan.quarantine(appDir, jars.resolve("z-1.0.jar"));
+		plan.quarantine(appDir, jars.resolve("b-1.0.jar"));
+
+		assertEquals("[quarantine jars/b-1.0.jar, quarantine jars/z-1.0.jar]",
+			plan.operations(Action.quarantine).toString());
+		assertEquals(Integer.valueOf(2), plan.counts().get(Action.quarantine));
+		assertEquals(Integer.valueOf(0), plan.counts().get(Action.delete));
+	}
+
+	private static Artifact artifact(final String artifactId,
+		final String version)
+	{
+		return new DefaultArtifact("org.example", artifactId, version, "compile",
+			"jar", null, new DefaultArtifactHandler("jar"));
+	}
+}
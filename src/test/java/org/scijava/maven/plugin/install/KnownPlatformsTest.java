@@ -0,0 +1,69 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class KnownPlatformsTest {
+
+	@Test
+	public void platform() {
+		assertEquals("linux64", KnownPlatforms.platform("natives-linux-amd64"));
+		assertEquals("linux64", KnownPlatforms.platform("linux"));
+		assertEquals("win32", KnownPlatforms.platform("native-windows-i586"));
+		assertEquals("macosx", KnownPlatforms.platform("macosx-universal"));
+		assertNull(KnownPlatforms.platform("natives-linux-aarch64"));
+		assertNull(KnownPlatforms.platform("sources"));
+		assertNull(KnownPlatforms.platform(null));
+	}
+
+	@Test
+	public void isForPlatforms() {
+		final List<String> platforms = Arrays.asList("linux64", "linux-aarch64");
+		assertTrue(KnownPlatforms.isForPlatforms(null, platforms));
+		assertTrue(KnownPlatforms.isForPlatforms("sources", platforms));
+		assertTrue(KnownPlatforms.isForPlatforms("natives-linux-x86_64",
+			platforms));
+		assertTrue(KnownPlatforms.isForPlatforms("natives-linux-aarch64",
+			platforms));
+		assertFalse(KnownPlatforms.isForPlatforms("natives-windows-amd64",
+			platforms));
+		assertFalse(KnownPlatforms.isForPlatforms("macosx-universal", platforms));
+		assertFalse(KnownPlatforms.isForPlatforms("linux-armhf", platforms));
+	}
+}
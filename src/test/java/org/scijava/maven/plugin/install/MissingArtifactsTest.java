@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.resolution.ArtifactDescriptorException;
+import org.eclipse.aether.resolution.ArtifactDescriptorRequest;
+import org.eclipse.aether.resolution.ArtifactDescriptorResult;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.junit.Test;
+
+public class MissingArtifactsTest {
+
+	@Test
+	public void results() {
+		final ArtifactResult resolved = new ArtifactResult(new ArtifactRequest(
+			new DefaultArtifact("junit:junit:4.13.2"), null, null));
+		resolved.setArtifact(resolved.getRequest().getArtifact().setFile(new File(
+			"junit-4.13.2.jar")));
+		final ArtifactResult missing = new ArtifactResult(new ArtifactRequest(
+			new DefaultArtifact("net.imagej:ij:jar:natives-linux:1.54f"), null,
+			null));
+		assertEquals("[net.imagej:ij:jar:natives-linux:1.54f]", MissingArtifacts
+			.from(new RuntimeException("wrapped", new ArtifactResolutionException(
+				Arrays.asList(resolved, missing), "unrelated wording"))).toString());
+	}
+
+	@Test
+	public void descriptor() {
+		final ArtifactDescriptorResult result = new ArtifactDescriptorResult(
+			new ArtifactDescriptorRequest(new DefaultArtifact(
+				"org.scijava:pom-scijava:pom:40.0.0"), null, null));
+		assertEquals("[org.scijava:pom-scijava:pom:40.0.0]", MissingArtifacts.from(
+			new ArtifactDescriptorException(result, "unrelated wording"))
+			.toString());
+	}
+
+	@Test
+	public void list() {
+		assertEquals("[net.imagej:ij:jar:1.54f, junit:junit:jar:4.13.2]",
+			MissingArtifacts.from(new RuntimeException("wrapped", new IOException(
+				"The following artifacts could not be resolved: " +
+					"net.imagej:ij:jar:1.54f, junit:junit:jar:4.13.2: " +
+					"Cannot access central (https://repo.maven.apache.org/maven2) " +
+					"in offline mode"))).toString());
+	}
+
+	@Test
+	public void single() {
+		assertEquals("[net.imagej:ij:jar:1.54f]", MissingArtifacts.from(
+			new IOException("Cannot access central (https://repo1.maven.org) in " +
+				"offline mode and the artifact net.imagej:ij:jar:1.54f has not been " +
+				"downloaded from it before.")).toString());
+		assertEquals("[org.scijava:pom-scijava:pom:40.0.0]", MissingArtifacts.from(
+			new IOException("Failed to read artifact descriptor for " +
+				"org.scijava:pom-scijava:pom:40.0.0")).toString());
+		assertEquals("[net.imagej:ij:jar:1.54f]", MissingArtifacts.from(
+			new IOException("Could not find artifact net.imagej:ij:jar:1.54f in " +
+				"central (https://repo1.maven.org)")).toString());
+	}
+
+	@Test
+	public void none() {
+		assertEquals("[]", MissingArtifacts.from(new IOException("Boom"))
+			.toString());
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NativeExtractorTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void extractsOnlyWhenChanged() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final File jar = jar(new File(appDir,
+			"jars/linux64/foo-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libfoo.so", "org/foo/Foo.class");
+		final File library = new File(appDir, "lib/linux64/libfoo.so");
+
+		final List<String> skipped = new ArrayList<>();
+		final NativeExtractor extractor = new NativeExtractor(appDir);
+		assertEquals(1, extractor.extract(jar.toPath(), "abc", "linux64",
+			skipped));
+		assertTrue(library.isFile());
+		assertFalse(new File(appDir, "lib/linux64/Foo.class").exists());
+		assertEquals(-1, extractor.extract(jar.toPath(), "abc", "linux64",
+			skipped));
+		extractor.save();
+
+		final NativeExtractor reloaded = new NativeExtractor(appDir);
+		assertEquals(-1, reloaded.extract(jar.toPath(), "abc", "linux64",
+			skipped));
+		assertTrue(library.delete());
+		assertEquals(1, reloaded.extract(jar.toPath(), "abc", "linux64",
+			skipped));
+		assertEquals(1, reloaded.extract(jar.toPath(), "def", "linux64",
+			skipped));
+
+		reloaded.remove(jar.toPath());
+		assertFalse(library.exists());
+	}
+
+	@Test
+	public void sharesIdenticalLibraries() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final File foo = jar(new File(appDir,
+			"jars/linux64/foo-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libshared.so", "natives/linux_64/libfoo.so");
+		final File bar = jar(new File(appDir,
+			"jars/linux64/bar-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libshared.so");
+		final File shared = new File(appDir, "lib/linux64/libshared.so");
+
+		final List<String> skipped = new ArrayList<>();
+		final NativeExtractor extractor = new NativeExtractor(appDir);
+		assertEquals(2, extractor.extract(foo.toPath(), "abc", "linux64",
+			skipped));
+		assertEquals(0, extractor.extract(bar.toPath(), "def", "linux64",
+			skipped));
+
+		assertTrue(foo.delete());
+		extractor.remove(foo.toPath());
+		assertTrue("Still claimed by bar: " + shared, shared.isFile());
+		assertFalse(new File(appDir, "lib/linux64/libfoo.so").exists());
+		extractor.remove(bar.toPath());
+		assertFalse(shared.exists());
+	}
+
+	@Test
+	public void rejectsConflictingLibraries() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final File foo = jar(new File(appDir,
+			"jars/linux64/foo-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libshared.so");
+		final File bar = jar(new File(appDir,
+			"jars/linux64/bar-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libbar.so", "other/libshared.so");
+		final File shared = new File(appDir, "lib/linux64/libshared.so");
+
+		final List<String> skipped = new ArrayList<>();
+		final NativeExtractor extractor = new NativeExtractor(appDir);
+		assertEquals(1, extractor.extract(foo.toPath(), "abc", "linux64",
+			skipped));
+		final byte[] contents = Files.readAllBytes(shared.toPath());
+		try {
+			extractor.extract(bar.toPath(), "def", "linux64", skipped);
+			fail("Conflict not detected");
+		}
+		catch (final IOException e) {
+			assertTrue(e.getMessage(), e.getMessage().contains(
+				"jars/linux64/foo-1.0-natives-linux-amd64.jar"));
+		}
+		assertArrayEquals(contents, Files.readAllBytes(shared.toPath()));
+		assertFalse(new File(appDir, "lib/linux64/libbar.so").exists());
+
+		// NB: A library whose jar is gone is no longer claimed.
+		assertTrue(foo.delete());
+		assertEquals(2, extractor.extract(bar.toPath(), "def", "linux64",
+			skipped));
+		assertTrue(skipped.isEmpty());
+	}
+
+	@Test
+	public void leavesForeignLibrariesAlone() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		final File foo = jar(new File(appDir,
+			"jars/linux64/foo-1.0-natives-linux-amd64.jar"),
+			"natives/linux_64/libshipped.so", "natives/linux_64/libfoo.so");
+		final File shipped = new File(appDir, "lib/linux64/libshipped.so");
+		assertTrue(shipped.getParentFile().mkdirs());
+		final byte[] contents = "shipped".getBytes(StandardCharsets.UTF_8);
+		Files.write(shipped.toPath(), contents);
+
+		final List<String> skipped = new ArrayList<>();
+		final NativeExtractor extractor = new NativeExtractor(appDir);
+		assertEquals(1, extractor.extract(foo.toPath(), "abc", "linux64",
+			skipped));
+		assertEquals(Arrays.asList("lib/linux64/libshipped.so"), skipped);
+		assertArrayEquals(contents, Files.readAllBytes(shipped.toPath()));
+
+		extractor.remove(foo.toPath());
+		assertFalse(new File(appDir, "lib/linux64/libfoo.so").exists());
+		assertArrayEquals(contents, Files.readAllBytes(shipped.toPath()));
+	}
+
+	@Test
+	public void isLibrary() {
+		assertTrue(NativeExtractor.isLibrary("natives/windows_64/foo.dll"));
+		assertTrue(NativeExtractor.isLibrary("libfoo.dylib"));
+		assertTrue(NativeExtractor.isLibrary("linux-x86_64/libfoo.so.1.2"));
+		assertFalse(NativeExtractor.isLibrary("org/foo/Foo.class"));
+		assertTrue(NativeExtractor.isLibrary("META-INF/native/libfoo.so"));
+		assertFalse(NativeExtractor.isLibrary("META-INF/MANIFEST.MF"));
+	}
+
+	private static File jar(final File file, final String... entries)
+		throws IOException
+	{
+		file.getParentFile().mkdirs();
+		try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(
+			file)))
+		{
+			for (final String entry : entries) {
+				out.putNextEntry(new ZipEntry(entry));
+				out.write(entry.getBytes(StandardCharsets.UTF_8));
+				out.closeEntry();
+			}
+		}
+		return file;
+	}
+}
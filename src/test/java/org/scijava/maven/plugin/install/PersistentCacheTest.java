@@ -0,0 +1,81 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void roundTrip() throws IOException {
+		final File file = new File(folder.getRoot(), "cache/test.properties");
+		final PersistentCache cache = new PersistentCache(file, "test");
+		assertNull(cache.get("/path/to/foo.jar"));
+		cache.put("/path/to/foo.jar", "123:456:true");
+		cache.save();
+		assertTrue(file.isFile());
+
+		final PersistentCache reloaded = new PersistentCache(file, "test");
+		assertEquals("123:456:true", reloaded.get("/path/to/foo.jar"));
+		reloaded.remove("/path/to/foo.jar");
+		reloaded.save();
+		assertNull(new PersistentCache(file, "test").get("/path/to/foo.jar"));
+	}
+
+	@Test
+	public void unchangedCacheIsNotWritten() throws IOException {
+		final File file = new File(folder.getRoot(), "test.properties");
+		final PersistentCache cache = new PersistentCache(file, "test");
+		cache.get("foo");
+		cache.save();
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void corruptCacheIsIgnored() throws IOException {
+		final File file = folder.newFile("test.properties");
+		Files.write(file.toPath(), "foo=\\u12".getBytes("UTF-8"));
+		assertNull(new PersistentCache(file, "test").get("foo"));
+	}
+}
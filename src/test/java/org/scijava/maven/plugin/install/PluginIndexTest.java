@@ -0,0 +1,97 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginIndexTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void mergesAndUpdates() throws IOException {
+		final File appDir = folder.newFolder("Fiji.app");
+		jar(new File(appDir, "jars/b-1.0.jar"), PluginIndex.SCIJAVA_INDEX,
+			"{\"class\":\"org.b.Zeta\",\"values\":{\"type\":\"x\"}}" +
+				"{\"class\":\"org.b.Alpha\",\"values\":{\"name\":\"{\\\"}\"}}");
+		jar(new File(appDir, "plugins/Foo_-1.0.jar"), PluginIndex.IJ1_CONFIG,
+			"# comment\nPlugins>Foo, \"Foo\", Foo_\n\n");
+		final File other = jar(new File(appDir, "jars/a-1.0.jar"),
+			PluginIndex.SCIJAVA_INDEX, "{\"class\":\"org.a.Beta\",\n\"values\":{}}");
+
+		final PluginIndex index = new PluginIndex(appDir);
+		assertTrue(index.update());
+		assertEquals(Arrays.asList(
+			"{\"jar\":\"jars/a-1.0.jar\",\"plugin\":{\"class\":\"org.a.Beta\", " +
+				"\"values\":{}}}",
+			"{\"jar\":\"jars/b-1.0.jar\",\"plugin\":{\"class\":\"org.b.Alpha\"," +
+				"\"values\":{\"name\":\"{\\\"}\"}}}",
+			"{\"jar\":\"jars/b-1.0.jar\",\"plugin\":{\"class\":\"org.b.Zeta\"," +
+				"\"values\":{\"type\":\"x\"}}}",
+			"{\"jar\":\"plugins/Foo_-1.0.jar\",\"ij1\":" +
+				"\"Plugins>Foo, \\\"Foo\\\", Foo_\"}"), //
+			Files.readAllLines(index.file().toPath()));
+		assertFalse(new PluginIndex(appDir).update());
+
+		assertTrue(other.delete());
+		assertTrue(new PluginIndex(appDir).update());
+		assertEquals(3, Files.readAllLines(index.file().toPath()).size());
+	}
+
+	private static File jar(final File file, final String entry,
+		final String content) throws IOException
+	{
+		file.getParentFile().mkdirs();
+		try (final ZipOutputStream out = new ZipOutputStream(new FileOutputStream(
+			file)))
+		{
+			out.putNextEntry(new ZipEntry(entry));
+			out.write(content.getBytes(StandardCharsets.UTF_8));
+			out.closeEntry();
+		}
+		return file;
+	}
+}
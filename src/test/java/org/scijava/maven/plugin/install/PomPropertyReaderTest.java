@@ -0,0 +1,130 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PomPropertyReaderTest {
+
+	private static final String NAME = "scijava.app.subdirectory";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private PomPropertyReader reader;
+
+	@Before
+	public void setUp() {
+		reader = new PomPropertyReader(folder.getRoot(), NAME);
+	}
+
+	@Test
+	public void readsProperty() throws IOException {
+		final File pom = pom("org.example", "foo", "1.0", null,
+			"<properties><a>b</a><" + NAME + "> plugins/Foo </" + NAME +
+				"></properties>");
+		assertEquals("plugins/Foo", reader.read(pom));
+	}
+
+	@Test
+	public void unset() throws IOException {
+		final File pom = pom("org.example", "foo", "1.0", null,
+			"<properties><a>b</a></properties><build><properties><" + NAME +
+				">x</" + NAME + "></properties></build>");
+		assertNull(reader.read(pom));
+	}
+
+	@Test
+	public void inheritsProperty() throws IOException {
+		pom("org.example", "grandparent", "2", null, "<properties><" + NAME +
+			">jars/bio-formats</" + NAME + "></properties>");
+		pom("org.example", "parent", "1", parent("grandparent", "2"),
+			"<properties><a>b</a></properties>");
+		final File child = pom("org.example", "foo", "1.0", parent("parent",
+			"1"), "");
+		assertEquals("jars/bio-formats", reader.read(child));
+
+		final File overriding = pom("org.example", "bar", "1.0", parent("parent",
+			"1"), "<properties><" + NAME + "/></properties>");
+		assertEquals("", reader.read(overriding));
+	}
+
+	@Test
+	public void undeterminable() throws IOException {
+		assertUndeterminable(pom("org.example", "interpolated", "1.0", null,
+			"<properties><" + NAME + ">${dir}</" + NAME + "></properties>"));
+		assertUndeterminable(pom("org.example", "profile", "1.0", null,
+			"<profiles><profile><properties><" + NAME + ">x</" + NAME +
+				"></properties></profile></profiles>"));
+		assertUndeterminable(pom("org.example", "orphan", "1.0", parent(
+			"missing", "1"), ""));
+	}
+
+	private void assertUndeterminable(final File pom) {
+		try {
+			reader.read(pom);
+			fail("Should not be determinable: " + pom);
+		}
+		catch (final IOException e) {
+			// expected
+		}
+	}
+
+	private static String parent(final String artifactId, final String version) {
+		return "<parent><groupId>org.example</groupId><artifactId>" + artifactId +
+			"</artifactId><version>" + version + "</version></parent>";
+	}
+
+	private File pom(final String groupId, final String artifactId,
+		final String version, final String parent, final String body)
+		throws IOException
+	{
+		final File file = reader.pomFile(groupId, artifactId, version);
+		file.getParentFile().mkdirs();
+		final String xml = "<?xml version=\"1.0\"?>\n" +
+			"<project xmlns=\"http://maven.apache.org/POM/4.0.0\">" +
+			"<modelVersion>4.0.0</modelVersion>" + (parent == null ? "" : parent) +
+			"<artifactId>" + artifactId + "</artifactId>" + body + "</project>";
+		Files.write(file.toPath(), xml.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+}
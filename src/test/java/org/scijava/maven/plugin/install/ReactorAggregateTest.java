@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Test;
+
+public class ReactorAggregateTest {
+
+	@Test
+	public void installsOnceAllModulesAreDone() {
+		final File appDir = new File("Fiji.app").getAbsoluteFile();
+		final ReactorAggregate aggregate = new ReactorAggregate(Arrays.asList(
+			"org.example:a:jar:1.0", "org.example:b:jar:1.0"));
+
+		aggregate.add(appDir, artifact("a"), null, true);
+		aggregate.add(appDir, artifact("ij"), null, false);
+		assertNull(aggregate.contributed("org.example:a:jar:1.0"));
+		assertEquals(1, aggregate.pending());
+
+		aggregate.add(appDir, artifact("ij"), null, false);
+		aggregate.add(appDir, artifact("a"), "jars/ignored", false);
+		aggregate.add(appDir, artifact("b"), "plugins", true);
+		final Map<File, List<ReactorAggregate.Entry>> entries = aggregate
+			.contributed("org.example:b:jar:1.0");
+		assertEquals(1, entries.size());
+
+		final List<ReactorAggregate.Entry> artifacts = entries.get(appDir);
+		assertEquals(3, artifacts.size());
+		assertEquals("a", artifacts.get(0).artifact.getArtifactId());
+		assertNull(artifacts.get(0).subdirectory);
+		assertEquals("ij", artifacts.get(1).artifact.getArtifactId());
+		assertEquals("plugins", artifacts.get(2).subdirectory);
+
+		// only the last module installs
+		assertNull(aggregate.contributed("org.example:b:jar:1.0"));
+	}
+
+	@Test
+	public void ownArtifactTakesPrecedence() {
+		final File appDir = new File("Fiji.app").getAbsoluteFile();
+		final ReactorAggregate aggregate = new ReactorAggregate(Arrays.asList(
+			"b"));
+		aggregate.add(appDir, artifact("a"), null, false);
+		aggregate.add(appDir, artifact("a"), "plugins", true);
+		assertEquals("plugins", aggregate.contributed("b").get(appDir).get(
+			0).subdirectory);
+	}
+
+	private static Artifact artifact(final String artifactId) {
+		return new DefaultArtifact("org.example", artifactId, "1.0", "compile",
+			"jar", null, new DefaultArtifactHandler("jar"));
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ResolutionLockTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void roundTrip() throws IOException {
+		final File file = new File(folder.getRoot(), "scijava.lock");
+		assertNull(ResolutionLock.read(file, "foo"));
+
+		final ResolutionLock lock = new ResolutionLock("1234", Arrays.asList(
+			new ResolutionLock.Entry("net.imagej:ij:jar::1.54f", "compile",
+				"aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d",
+				"repository:net/imagej/ij/1.54f/ij-1.54f.jar"),
+			new ResolutionLock.Entry("org.example:foo:jar:natives-linux:1.0", "-",
+				"-", "/path with spaces/foo.jar")));
+		lock.write(file, "foo");
+
+		final ResolutionLock read = ResolutionLock.read(file, "foo");
+		assertEquals("1234", read.fingerprint);
+		assertEquals(2, read.entries.size());
+		assertEquals("net.imagej:ij:jar::1.54f", read.entries.get(0).coordinates);
+		assertEquals("-", read.entries.get(1).scope);
+		assertEquals("/path with spaces/foo.jar", read.entries.get(1).path);
+		assertNull(ResolutionLock.read(file, "bar"));
+	}
+
+	@Test
+	public void keepsOtherResolutions() throws IOException {
+		final File file = new File(folder.getRoot(), "scijava.lock");
+		new ResolutionLock("1234", Arrays.asList(new ResolutionLock.Entry(
+			"org.example:foo:jar::1.0", "compile", "-", "foo.jar"))).write(file,
+				"org.example:foo");
+		new ResolutionLock("5678", Arrays.asList(new ResolutionLock.Entry(
+			"org.example:bar:jar::1.0", "compile", "-", "bar.jar"))).write(file,
+				"org.example:bar");
+		new ResolutionLock("9abc", Arrays.asList(new ResolutionLock.Entry(
+			"org.example:foo:jar::1.1", "compile", "-", "foo.jar"))).write(file,
+				"org.example:foo");
+
+		assertEquals("9abc", ResolutionLock.read(file, "org.example:foo")
+			.fingerprint);
+		final ResolutionLock bar = ResolutionLock.read(file, "org.example:bar");
+		assertEquals("5678", bar.fingerprint);
+		assertEquals("org.example:bar:jar::1.0", bar.entries.get(0).coordinates);
+	}
+
+	@Test
+	public void keepsUnchangedFile() throws IOException {
+		final File file = new File(folder.getRoot(), "scijava.lock");
+		final ResolutionLock lock = new ResolutionLock("1234", Arrays.asList(
+			new ResolutionLock.Entry("net.imagej:ij:jar::1.54f", "compile", "-",
+				"ij.jar")));
+		lock.write(file, "foo");
+		file.setLastModified(0);
+		lock.write(file, "foo");
+		assertEquals(0, file.lastModified());
+	}
+
+	@Test
+	public void malformed() throws IOException {
+		final File file = new File(folder.getRoot(), "scijava.lock");
+		Files.write(file.toPath(), "[foo]\nfingerprint 1234\nnet.imagej:ij compile"
+			.getBytes(StandardCharsets.UTF_8));
+		assertNull(ResolutionLock.read(file, "foo"));
+		Files.write(file.toPath(), "fingerprint 1234\n"
+			.getBytes(StandardCharsets.UTF_8));
+		assertNull(ResolutionLock.read(file, "foo"));
+	}
+
+	@Test
+	public void relativeToRepository() {
+		final File repository = new File(folder.getRoot(), "repository");
+		final File basedir = new File(folder.getRoot(), "project/module");
+		final File jar = new File(repository, "net/imagej/ij/1.54f/ij-1.54f.jar");
+		final String path = ResolutionLock.relativize(jar, repository, basedir);
+		assertEquals("repository:net/imagej/ij/1.54f/ij-1.54f.jar", path);
+		assertEquals(jar, ResolutionLock.resolve(path, repository, basedir));
+	}
+
+	@Test
+	public void relativeToBasedir() {
+		final File repository = new File(folder.getRoot(), "repository");
+		final File basedir = new File(folder.getRoot(), "project/module");
+		final File sibling = new File(folder.getRoot(),
+			"project/other/target/other.jar");
+		final String path = ResolutionLock.relativize(sibling, repository,
+			basedir);
+		assertEquals("basedir:../other/target/other.jar", path);
+		assertEquals(sibling.getAbsoluteFile(), ResolutionLock.resolve(path,
+			repository, basedir).getAbsoluteFile());
+
+		// Without a base directory, the path is absolute.
+		assertEquals(sibling.getAbsoluteFile(), ResolutionLock.resolve(
+			ResolutionLock.relativize(sibling, repository, null), repository, null));
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.junit.Test;
+
+public class SessionCacheTest {
+
+	@Test
+	public void sharedAcrossClonesOfTheSession() {
+		final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+		final MavenSession session = new MavenSession(null, null, request, null);
+		final MavenSession clone = new MavenSession(null, null, request, null);
+		final MavenSession other = new MavenSession(null, null,
+			new DefaultMavenExecutionRequest(), null);
+
+		final Map<String, String> map = SessionCache.get(session, "test",
+			HashMap::new);
+		assertSame(map, SessionCache.get(clone, "test", HashMap::new));
+		assertNotSame(map, SessionCache.get(session, "other", HashMap::new));
+		assertNotSame(map, SessionCache.get(other, "test", HashMap::new));
+		assertNotSame(SessionCache.get(null, "test", HashMap::new), SessionCache
+			.get(null, "test", HashMap::new));
+	}
+
+	@Test
+	public void peekDoesNotCreate() {
+		final MavenSession session = new MavenSession(null, null,
+			new DefaultMavenExecutionRequest(), null);
+		assertNull(SessionCache.peek(session, "test"));
+		final Map<String, String> map = SessionCache.get(session, "test",
+			HashMap::new);
+		assertSame(map, SessionCache.peek(session, "test"));
+		assertNull(SessionCache.peek(null, "test"));
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * #%L
+ * A plugin for managing SciJava-based projects.
+ * %%
+ * Copyright (C) 2014 - 2025 SciJava developers.
+ * %%
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ * 1. Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ * ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDERS OR CONTRIBUTORS BE
+ * LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF
+ * SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS
+ * INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN
+ * CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ * ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE
+ * POSSIBILITY OF SUCH DAMAGE.
+ * #L%
+ */
+
+package org.scijava.maven.plugin.install;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.Test;
+
+public class SubdirectoryMatcherTest {
+
+	@Test
+	public void defaultPatterns() {
+		final List<SubdirectoryPattern> patterns = //
+			KnownPlatforms.nativeSubdirectoryPatterns();
+		final SubdirectoryMatcher matcher = new SubdirectoryMatcher(patterns);
+		for (final String classifier : KnownPlatforms.nativeClassifiers()) {
+			assertEquals(classifier, reference(patterns, classifier), //
+				matcher.subdirectory("org.lwjgl", "lwjgl", "3.3.1", classifier, "jar"));
+		}
+		assertEquals("jars/linux64", matcher.subdirectory("org.lwjgl", "lwjgl",
+			"3.3.1", "natives-linux-amd64", "jar"));
+		assertEquals("jars/macosx", matcher.subdirectory("org.lwjgl", "lwjgl",
+			"3.3.1", "natives-macos-arm64", "jar"));
+		assertNull(matcher.subdirectory("org.lwjgl", "lwjgl", "3.3.1", null,
+			"jar"));
+		assertNull(matcher.subdirectory("org.lwjgl", "lwjgl", "3.3.1", "sources",
+			"jar"));
+	}
+
+	@Test
+	public void firstMatchWins() {
+		final List<SubdirectoryPattern> patterns = Arrays.asList( //
+			pattern("jars/bio-formats", "ome:formats-*"), //
+			pattern("jars/custom", "ome:*:*:natives-linux"), //
+			pattern("jars/linux64", "natives-linux"), //
+			pattern("jars/other", "*:*:*:natives-linux"));
+		final SubdirectoryMatcher matcher = new SubdirectoryMatcher(patterns);
+		assertEquals("jars/bio-formats", matcher.subdirectory("ome",
+			"formats-gpl", "6.0.0", null, "jar"));
+		assertEquals("jars/bio-formats", matcher.subdirectory("ome",
+			"formats-gpl", "6.0.0", "natives-linux", "jar"));
+		assertEquals("jars/custom", matcher.subdirectory("ome", "jhdf5", "1.0",
+			"natives-linux", "jar"));
+		assertEquals("jars/linux64", matcher.subdirectory("org.lwjgl", "lwjgl",
+			"3.3.1", "natives-linux", "jar"));
+		assertNull(matcher.subdirectory("org.lwjgl", "lwjgl", "3.3.1", null,
+			"jar"));
+	}
+
+	@Test
+	public void regexSemanticsArePreserved() {
+		final List<SubdirectoryPattern> patterns = Arrays.asList( //
+			pattern("jars/scijava", "org.scijava:*:*:*:jar"));
+		final SubdirectoryMatcher matcher = new SubdirectoryMatcher(patterns);
+		for (final String groupId : Arrays.asList("org.scijava", "orgXscijava",
+			"org.scijava.foo", "net.imagej"))
+		{
+			assertEquals(groupId, reference(patterns, groupId, "x", "1", null,
+				"jar"), matcher.subdirectory(groupId, "x", "1", null, "jar"));
+		}
+	}
+
+	@Test
+	public void patternsAreRecompiledWhenChanged() {
+		final SubdirectoryPattern pattern = pattern("jars/scijava",
+			"org.scijava:*");
+		pattern.patterns = new ArrayList<>(pattern.patterns);
+		assertTrue(pattern.matches(artifact("org.scijava", "scijava-common")));
+
+		// mutated in place
+		pattern.patterns.set(0, "net.imagej:*");
+		assertFalse(pattern.matches(artifact("org.scijava", "scijava-common")));
+		assertTrue(pattern.matches(artifact("net.imagej", "ij")));
+
+		// replaced
+		pattern.patterns = Arrays.asList("org.scijava:*");
+		assertTrue(pattern.matches(artifact("org.scijava", "scijava-common")));
+	}
+
+	private static Artifact artifact(final String groupId,
+		final String artifactId)
+	{
+		return new DefaultArtifact(groupId, artifactId, "1.0", "compile", "jar",
+			null, new DefaultArtifactHandler("jar"));
+	}
+
+	private static SubdirectoryPattern pattern(final String subdirectory,
+		final String... patterns)
+	{
+		final SubdirectoryPattern pattern = new SubdirectoryPattern();
+		pattern.subdirectory = subdirectory;
+		pattern.patterns = Arrays.asList(patterns);
+		return pattern;
+	}
+
+	private static String reference(final List<SubdirectoryPattern> patterns,
+		final String classifier)
+	{
+		return reference(patterns, "org.lwjgl", "lwjgl", "3.3.1", classifier,
+			"jar");
+	}
+
+	/** The original, uncompiled matching logic. */
+	private static String reference(final List<SubdirectoryPattern> patterns,
+		final String... gavcp)
+	{
+		for (final SubdirectoryPattern pattern : patterns) {
+			for (final String p : pattern.patterns) {
+				final String[] tokens = p.split(":");
+				final String[] full = { "*", "*", "*", "*", "*" };
+				if (tokens.length == 1) full[3] = tokens[0];
+				else System.arraycopy(tokens, 0, full, 0, tokens.length);
+				boolean match = true;
+				for (int i = 0; i < full.length; i++) {
+					final String s = gavcp[i] == null ? "" : gavcp[i];
+					match &= s.matches(full[i].replaceAll("\\*", ".*"));
+				}
+				if (match) return pattern.subdirectory;
+			}
+		}
+		return null;
+	}
+}